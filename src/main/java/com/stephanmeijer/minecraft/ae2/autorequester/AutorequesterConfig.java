@@ -15,6 +15,26 @@ public class AutorequesterConfig {
             .comment("Tick interval for checking conditions (20 = 1 second)")
             .defineInRange("checkInterval", 20, 1, 1200);
 
+    private static final ModConfigSpec.IntValue MAX_RULES_PER_TICK = BUILDER
+            .comment("Maximum number of rules one autorequester re-checks per tick in its periodic sweep")
+            .defineInRange("maxRulesPerTick", 32, 1, Integer.MAX_VALUE);
+
+    private static final ModConfigSpec.LongValue WORK_BUDGET_NANOS = BUILDER
+            .comment("Time in nanoseconds all autorequesters together may spend per tick on rule checks and crafting requests; leftover work carries over to the next tick")
+            .defineInRange("workBudgetNanos", 2_000_000L, 50_000L, 50_000_000L);
+
+    private static final ModConfigSpec.IntValue TARGET_MSPT = BUILDER
+            .comment("Average milliseconds per server tick above which autorequesters slow down their checks (-1 = never throttle)")
+            .defineInRange("targetMspt", 40, -1, 1000);
+
+    private static final ModConfigSpec.IntValue MAX_RETRY_DELAY = BUILDER
+            .comment("Longest wait in ticks before a rule whose crafting request failed is retried; the wait doubles with each failure up to this")
+            .defineInRange("maxRetryDelay", 6000, 20, 72000);
+
+    private static final ModConfigSpec.IntValue MAX_CONCURRENT_CALCULATIONS = BUILDER
+            .comment("Maximum number of crafting calculations all autorequesters on the server may have running at once; further rules wait their turn")
+            .defineInRange("maxConcurrentCalculations", 4, 1, 256);
+
     private static final ModConfigSpec.IntValue MAX_BATCH_SIZE = BUILDER
             .comment("Maximum batch size allowed per crafting request (-1 = unlimited)")
             .defineInRange("maxBatchSize", -1, -1, Integer.MAX_VALUE);
@@ -38,6 +58,26 @@ public class AutorequesterConfig {
         return CHECK_INTERVAL.get();
     }
 
+    public static int getMaxRulesPerTick() {
+        return MAX_RULES_PER_TICK.get();
+    }
+
+    public static long getWorkBudgetNanos() {
+        return WORK_BUDGET_NANOS.get();
+    }
+
+    public static int getTargetMspt() {
+        return TARGET_MSPT.get();
+    }
+
+    public static int getMaxRetryDelay() {
+        return MAX_RETRY_DELAY.get();
+    }
+
+    public static int getMaxConcurrentCalculations() {
+        return MAX_CONCURRENT_CALCULATIONS.get();
+    }
+
     public static int getMaxBatchSize() {
         return MAX_BATCH_SIZE.get();
     }
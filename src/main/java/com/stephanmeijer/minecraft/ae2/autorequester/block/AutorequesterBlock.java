@@ -3,7 +3,6 @@ package com.stephanmeijer.minecraft.ae2.autorequester.block;
 import java.util.List;
 
 import com.mojang.serialization.MapCodec;
-import com.stephanmeijer.minecraft.ae2.autorequester.ModBlocks;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.nbt.CompoundTag;
@@ -28,8 +27,6 @@ import net.minecraft.world.level.block.BaseEntityBlock;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.StateDefinition;
@@ -90,16 +87,6 @@ public final class AutorequesterBlock extends BaseEntityBlock {
         return new AutorequesterBlockEntity(pos, state);
     }
 
-    @Nullable
-    @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> blockEntityType) {
-        if (level.isClientSide()) {
-            return null;
-        }
-        return createTickerHelper(blockEntityType, ModBlocks.AUTOREQUESTER_BLOCK_ENTITY.get(),
-                (lvl, pos, st, be) -> be.serverTick());
-    }
-
     /**
      * Handle item interactions - specifically wrench to pick up the block.
      */
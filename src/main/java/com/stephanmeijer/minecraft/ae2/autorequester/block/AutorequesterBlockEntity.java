@@ -2,7 +2,7 @@ package com.stephanmeijer.minecraft.ae2.autorequester.block;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,10 +24,14 @@ import appeng.api.networking.crafting.ICraftingPlan;
 import appeng.api.networking.crafting.ICraftingRequester;
 import appeng.api.networking.crafting.ICraftingService;
 import appeng.api.networking.crafting.ICraftingSimulationRequester;
+import appeng.api.networking.crafting.ICraftingWatcherNode;
 import appeng.api.networking.security.IActionSource;
 import appeng.api.networking.storage.IStorageWatcherNode;
-import appeng.api.stacks.AEItemKey;
+import appeng.api.networking.ticking.IGridTickable;
+import appeng.api.networking.ticking.TickRateModulation;
+import appeng.api.networking.ticking.TickingRequest;
 import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
 import appeng.api.util.AECableType;
 import com.google.common.collect.ImmutableSet;
 import com.stephanmeijer.minecraft.ae2.autorequester.AutorequesterConfig;
@@ -36,6 +40,12 @@ import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingCondition;
 import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule;
 import com.stephanmeijer.minecraft.ae2.autorequester.data.RuleStatus;
 import com.stephanmeijer.minecraft.ae2.autorequester.gui.AutorequesterMenu;
+import com.stephanmeijer.minecraft.ae2.autorequester.server.CompletionQueue;
+import com.stephanmeijer.minecraft.ae2.autorequester.server.CraftabilityCache;
+import com.stephanmeijer.minecraft.ae2.autorequester.server.SweepScheduler;
+import com.stephanmeijer.minecraft.ae2.autorequester.server.TickThrottle;
+import com.stephanmeijer.minecraft.ae2.autorequester.server.WorkQueue;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
@@ -51,14 +61,15 @@ import net.minecraft.world.MenuProvider;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
-import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public final class AutorequesterBlockEntity extends BlockEntity implements MenuProvider, IInWorldGridNodeHost, IStorageWatcherNode, ICraftingRequester, ICraftingSimulationRequester {
+public final class AutorequesterBlockEntity extends BlockEntity implements MenuProvider, IInWorldGridNodeHost, IStorageWatcherNode,
+        ICraftingRequester, ICraftingSimulationRequester, IGridTickable, SweepScheduler.Sweepable {
     private static final Logger LOG = LoggerFactory.getLogger(AutorequesterBlockEntity.class);
 
     // ==================== Grid Node Listener ====================
@@ -94,24 +105,59 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
     // AE2 Grid Node - manages connection to ME network
     private final IManagedGridNode mainNode;
 
-    // Stack watcher - receives notifications when watched items change
-    @Nullable
-    private IStackWatcher stackWatcher;
+    // Items registered with the stack watcher, which notifies us when their amounts change
+    private final WatchedKeys watchedKeys = new WatchedKeys(true, key -> LOG.debug("[Autorequester] Watching item: {}", key));
+
+    // Key -> (rule, condition slot) index used to dispatch stack changes
+    private final RuleIndex ruleIndex = new RuleIndex(this::onConditionsMet);
 
-    // Track which items we're watching (targets and condition items)
-    private final Set<AEKey> watchedKeys = new HashSet<>();
+    // Rules touched by stack changes this tick, evaluated once on the next grid tick
+    private final Set<CraftingRule> dirtyRules = new LinkedHashSet<>();
 
     // Action source for ME operations
     private final IActionSource actionSource;
 
-    // Track active crafting jobs: rule ID -> crafting link
-    private final Map<UUID, ICraftingLink> activeCraftingJobs = new HashMap<>();
+    // Active crafting jobs and pending calculations per rule, and the targets they claim
+    private final CraftingJobs<AEKey> craftingJobs = new CraftingJobs<>();
+
+    // Rule lookup by ID, kept in sync with the rules
+    private final Map<UUID, CraftingRule> rulesById = new HashMap<>();
+
+    // Number of enabled rules per block status category
+    private final StatusCounts statusCounts = new StatusCounts();
+    private final CraftingRule.StatusListener statusListener = this::onRuleStatusChanged;
+
+    // Set when the block status may have changed; written at most once per tick
+    private boolean blockStatusDirty;
+
+    // Index of the next rule visited by the fallback sweep, and rules left in the current pass
+    private int sweepCursor;
+    private int sweepRemaining;
+
+    // Game time at which the current sweep pass started
+    private long sweepStart;
+
+    // Whether the grid tick manager currently has this block asleep
+    private boolean sleeping;
+
+    // Rules with an evaluation waiting in the server work queue
+    private final Set<CraftingRule> queuedEvaluations = new ReferenceOpenHashSet<>();
+
+    // Receives craftability changes of the rules' targets
+    private final CraftingWatcher craftingWatcher =
+            new CraftingWatcher(() -> getMainNode().getGrid(), this::onCraftableChange, this::updateWatchedTargets);
 
-    // Track pending crafting calculations
-    private final Map<UUID, Future<ICraftingPlan>> pendingCalculations = new HashMap<>();
+    // This block's calculation slots in the server-wide limiter
+    private final CalculationSlots calculationSlots = new CalculationSlots(this::onCalculationSlotGranted);
 
-    // Tick counter for throttled operations
-    private int tickCounter;
+    // Set when a rule's retry time changed and clients should be told
+    private boolean retrySyncPending;
+
+    // Idle crafting CPUs, and rules parked until one frees up
+    private final CpuTracker cpus = new CpuTracker();
+
+    // Rules whose last plan lacked ingredients, held back until one is restocked
+    private final StarvedRules starvedRules = new StarvedRules();
 
     public AutorequesterBlockEntity(BlockPos pos, BlockState blockState) {
         super(ModBlocks.AUTOREQUESTER_BLOCK_ENTITY.get(), pos, blockState);
@@ -123,7 +169,9 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
                 .setTagName("node")
                 .setIdlePowerUsage(5.0) // 5 AE/t idle power draw
                 .addService(IStorageWatcherNode.class, this)
-                .addService(ICraftingRequester.class, this);
+                .addService(ICraftingRequester.class, this)
+                .addService(ICraftingWatcherNode.class, craftingWatcher)
+                .addService(IGridTickable.class, this);
 
         // Only require a channel if configured to do so
         if (AutorequesterConfig.requiresChannel()) {
@@ -160,6 +208,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
         if (isOnline && !wasReady) {
             LOG.info("[Autorequester] Connected to ME network at {}", worldPosition);
+            ruleIndex.markStale();
             updateWatchedItems();
             evaluateAllRules(); // This calls updateBlockStatus()
         } else if (!isOnline && wasReady) {
@@ -181,7 +230,15 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
      */
     public void onReady() {
         if (level != null && !level.isClientSide()) {
+            // Which ingredients starved rules wait for is not saved; without this a
+            // loaded starved rule would ignore restocks and wait out its whole retry delay
+            for (CraftingRule rule : rules) {
+                if (rule.getStatus() == RuleStatus.MISSING_PATTERN && !starvedRules.contains(rule.getId())) {
+                    rule.clearRetry();
+                }
+            }
             mainNode.create(level, worldPosition);
+            SweepScheduler.get().register(this, worldPosition.asLong());
         }
     }
 
@@ -210,7 +267,9 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
     @Override
     public void updateWatcher(IStackWatcher newWatcher) {
-        this.stackWatcher = newWatcher;
+        watchedKeys.setWatcher(newWatcher);
+        // New watcher means a new grid; mirrored counts must be re-read
+        ruleIndex.markStale();
         updateWatchedItems();
     }
 
@@ -218,135 +277,208 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
     public void onStackChange(AEKey what, long amount) {
         LOG.debug("[Autorequester] Stack changed: {} = {}", what, amount);
 
-        // Re-evaluate rules that might be affected by this change
-        for (CraftingRule rule : rules) {
-            if (!rule.isEnabled() || !rule.isValid()) {
-                continue;
-            }
+        if (!starvedRules.isEmpty()) {
+            onIngredientChanged(what, amount);
+        }
 
-            // Check if this rule cares about this item
-            if (isRelevantToRule(rule, what)) {
-                evaluateRule(rule);
+        int slot = ruleIndex.slotOf(what);
+        if (slot == RuleIndex.NO_SLOT) {
+            return;
+        }
+
+        if (ruleIndex.isStale()) {
+            // Crossings cannot be computed against stale counts, so mark every
+            // rule that references this key dirty; evaluation reconciles the mirror
+            ruleIndex.updateCount(slot, amount);
+            CraftingRule previous = null;
+            for (RuleIndex.Entry entry : ruleIndex.entries(slot)) {
+                CraftingRule rule = entry.rule();
+                // Entries of one rule are consecutive; mark each enabled rule once
+                if (rule != previous) {
+                    previous = rule;
+                    if (rule.isEnabled()) {
+                        markRuleDirty(rule);
+                    }
+                }
             }
+            return;
+        }
+
+        // Watcher amounts feed the local count mirror. Only rules whose conditions
+        // all became satisfied by this change are marked dirty; they are evaluated
+        // once at the end of the tick no matter how many notifications arrive.
+        ruleIndex.updateCount(slot, amount);
+    }
+
+    /**
+     * Wake target of the rule index, called when a stack change made all of a
+     * rule's conditions hold. Only such a real crossing returns the rule to its
+     * base check interval; the stale fallback above marks rules dirty without
+     * resetting their backoff, so busy keys do not undo it.
+     */
+    private void onConditionsMet(CraftingRule rule) {
+        rule.resetBackoff();
+        markRuleDirty(rule);
+    }
+
+    private void markRuleDirty(CraftingRule rule) {
+        if (dirtyRules.isEmpty()) {
+            // First dirty rule this tick: make sure the grid ticks us promptly
+            mainNode.ifPresent((grid, node) -> grid.getTickManager().alertDevice(node));
+            sleeping = false;
+        }
+        if (!dirtyRules.add(rule)) {
+            WorkQueue.get().countCoalescedNotification();
         }
     }
 
     /**
-     * Updates the stack watcher to monitor items relevant to our rules.
+     * Updates the stack watcher to monitor items relevant to our rules, and the
+     * ingredients starved rules are waiting for.
      * Called when rules change or when we connect to the grid.
+     *
+     * <p>Keys are reference counted by the rules that use them, and only the
+     * difference to the previous set is sent to the watcher: a key is added when
+     * its first reference appears and removed when its last one goes away.
      */
     private void updateWatchedItems() {
-        if (stackWatcher == null) {
-            return;
+        int changed = watchedKeys.update(rules, starvedRules.getIngredients());
+        if (changed > 0) {
+            LOG.info("[Autorequester] Updated watcher with {} items ({} changed)", watchedKeys.size(), changed);
         }
+    }
 
-        // Clear existing watches
-        stackWatcher.reset();
-        watchedKeys.clear();
+    // ==================== Crafting Watcher ====================
 
-        // Watch all items that appear in rules (targets and conditions)
-        for (CraftingRule rule : rules) {
-            if (!rule.isEnabled()) {
-                continue;
-            }
+    /**
+     * A pattern for a watched target or ingredient was added or removed: retry
+     * the rules waiting for one.
+     */
+    private void onCraftableChange(AEKey what) {
+        retryFailedRules(RuleStatus.MISSING_PATTERN, what);
+        onIngredientChanged(what, Long.MAX_VALUE);
+    }
 
-            // Watch the target item
-            Item targetItem = rule.getTargetItem();
-            if (targetItem != null) {
-                AEKey targetKey = AEItemKey.of(targetItem.getDefaultInstance());
-                if (targetKey != null && !watchedKeys.contains(targetKey)) {
-                    stackWatcher.add(targetKey);
-                    watchedKeys.add(targetKey);
-                    LOG.debug("[Autorequester] Watching target item: {}", targetKey);
-                }
-            }
+    /**
+     * Registers the targets of all enabled rules and the ingredients starved
+     * rules are waiting for with the crafting watcher.
+     */
+    private void updateWatchedTargets() {
+        craftingWatcher.getTargets().update(rules, starvedRules.getIngredients());
+    }
 
-            // Watch all items in conditions
-            for (CraftingCondition condition : rule.getConditions()) {
-                Item conditionItem = condition.getItem();
-                if (conditionItem != null) {
-                    AEKey conditionKey = AEItemKey.of(conditionItem.getDefaultInstance());
-                    if (conditionKey != null && !watchedKeys.contains(conditionKey)) {
-                        stackWatcher.add(conditionKey);
-                        watchedKeys.add(conditionKey);
-                        LOG.debug("[Autorequester] Watching condition item: {}", conditionKey);
-                    }
-                }
+    /**
+     * Makes rules that failed with the given status retry now instead of waiting
+     * out their backoff, e.g. because a CPU became free.
+     * @param target only retry rules with this target, or null for all
+     */
+    private void retryFailedRules(RuleStatus status, @Nullable AEKey target) {
+        for (CraftingRule rule : rules) {
+            if (rule.getStatus() == status && rule.getRetryAt() != 0 && (target == null || target.equals(rule.getTargetKey()))) {
+                rule.clearRetry();
+                scheduleEvaluation(rule);
             }
         }
-
-        LOG.info("[Autorequester] Updated watcher with {} items", watchedKeys.size());
     }
 
     /**
-     * Checks if the given item is already being crafted or has a pending calculation
-     * by ANY rule (excluding the specified rule ID).
-     * This prevents multiple simultaneous crafting jobs for the same output item.
+     * Sets a failure status and schedules the rule's next attempt. The wait
+     * doubles with each consecutive failure and is partly randomized.
      */
-    private boolean isItemBeingCrafted(Item item, UUID excludeRuleId) {
-        for (CraftingRule otherRule : rules) {
-            if (otherRule.getId().equals(excludeRuleId)) {
-                continue;
-            }
-
-            // Check if target items match
-            if (!item.equals(otherRule.getTargetItem())) {
-                continue;
-            }
-
-            // Check if other rule has an active crafting job
-            ICraftingLink otherJob = activeCraftingJobs.get(otherRule.getId());
-            if (otherJob != null && !otherJob.isDone()) {
-                LOG.debug("[Autorequester] Item {} already being crafted by rule '{}'",
-                        item, otherRule.getName());
-                return true;
-            }
-
-            // Check if other rule has a pending calculation
-            Future<ICraftingPlan> otherCalc = pendingCalculations.get(otherRule.getId());
-            if (otherCalc != null && !otherCalc.isDone()) {
-                LOG.debug("[Autorequester] Item {} already has pending calculation by rule '{}'",
-                        item, otherRule.getName());
-                return true;
-            }
+    private void failRule(CraftingRule rule, RuleStatus status) {
+        if (level == null) {
+            rule.setStatus(status);
+            return;
         }
-        return false;
+        failRule(rule, status, RetryBackoff.delay(rule.getFailures(), TickThrottle.get().stretch(baseIntervalOf(rule)),
+                AutorequesterConfig.getMaxRetryDelay(), level.getRandom().nextDouble()));
     }
 
     /**
-     * Checks if a given AEKey is relevant to a rule (either as target or in conditions).
+     * Sets a failure status and retries the rule after the given number of ticks.
      */
-    private boolean isRelevantToRule(CraftingRule rule, AEKey key) {
-        if (!(key instanceof AEItemKey itemKey)) {
-            return false;
+    private void failRule(CraftingRule rule, RuleStatus status, long delay) {
+        rule.setStatus(status);
+        if (level == null) {
+            return;
         }
+        rule.scheduleRetry(level.getGameTime() + delay);
+        LOG.debug("[Autorequester] Rule '{}' failed with {}; retrying in {} ticks", rule.getName(), status, delay);
 
-        Item item = itemKey.getItem();
+        // Let open screens show the retry time
+        retrySyncPending = true;
+        wakeUp();
+    }
 
-        // Check if it's the target item
-        if (item.equals(rule.getTargetItem())) {
-            return true;
-        }
+    /**
+     * Holds back a rule whose plan lacked ingredients until one of them has
+     * risen enough to possibly cover its shortfall, or gained a pattern, rather
+     * than recalculating a plan that is bound to fail again. The longest retry
+     * delay still applies as a safety net.
+     * @param missing the ingredients and amounts the plan lacked
+     * @param inventory the grid's current stored amounts
+     */
+    private void starveRule(CraftingRule rule, KeyCounter missing, KeyCounter inventory) {
+        var needed = starvedRules.starve(rule.getId(), missing, inventory);
+        LOG.debug("[Autorequester] Rule '{}' waits for ingredients {}", rule.getName(), needed);
 
-        // Check if it's in any condition
-        for (CraftingCondition condition : rule.getConditions()) {
-            if (item.equals(condition.getItem())) {
-                return true;
+        failRule(rule, RuleStatus.MISSING_PATTERN, AutorequesterConfig.getMaxRetryDelay());
+        updateWatchedItems();
+        updateWatchedTargets();
+    }
+
+    /**
+     * Retries rules waiting for the ingredient whose shortfall the given stored
+     * amount may cover. Watches on ingredients no longer waited for are left
+     * in place until the watchers are next updated, since this runs inside
+     * watcher callbacks.
+     * @param amount the stored amount, or {@link Long#MAX_VALUE} to retry every rule waiting for it
+     */
+    private void onIngredientChanged(AEKey ingredient, long amount) {
+        for (UUID ruleId : starvedRules.releaseCovered(ingredient, amount)) {
+            CraftingRule rule = rulesById.get(ruleId);
+            if (rule != null) {
+                LOG.debug("[Autorequester] Ingredient {} available again for rule '{}'", ingredient, rule.getName());
+                rule.clearRetry();
+                scheduleEvaluation(rule);
             }
         }
+    }
+
+    /**
+     * Cancels the rule's pending calculation, freeing its calculation thread
+     * and slot. A submission already queued for it finds nothing to submit.
+     */
+    private void cancelCalculation(UUID ruleId) {
+        Future<ICraftingPlan> calculation = craftingJobs.removeCalculation(ruleId);
+        if (calculation == null) {
+            return;
+        }
+        calculation.cancel(true);
+        calculationSlots.release();
+        LOG.debug("[Autorequester] Cancelled crafting calculation for rule {}", ruleId);
+    }
 
-        return false;
+    /**
+     * Whether the rule's pending calculation no longer matches the rule: the
+     * rule was removed or disabled, or its target or batch size changed.
+     */
+    private boolean isCalculationStale(UUID ruleId) {
+        CraftingRule rule = rulesById.get(ruleId);
+        return rule == null || !rule.isEnabled() || !craftingJobs.matches(ruleId, rule.getTargetKey(), rule.getBatchSize());
     }
 
     // ==================== Rule Evaluation ====================
 
     /**
-     * Evaluates all rules. Called when connecting to the grid.
+     * Queues an evaluation of all rules. Called when connecting to the grid.
      */
     private void evaluateAllRules() {
+        // Everything is re-evaluated below, so pending dirty marks are satisfied
+        dirtyRules.clear();
         for (CraftingRule rule : rules) {
             if (rule.isEnabled() && rule.isValid()) {
-                evaluateRule(rule);
+                scheduleEvaluation(rule);
             } else if (!rule.isEnabled()) {
                 rule.setStatus(RuleStatus.IDLE);
             }
@@ -355,56 +487,93 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
     }
 
     /**
-     * Updates the block's visual status based on the overall state of rules.
-     * Priority: ERROR > WARNING > ACTIVE > IDLE > OFF
+     * Queues an evaluation of the rule in the server work queue, unless one is
+     * already queued. Queued work runs within the server-wide per-tick budget,
+     * so a burst of changes is spread over several ticks.
      */
-    private void updateBlockStatus() {
+    private void scheduleEvaluation(CraftingRule rule) {
+        scheduleEvaluation(rule, false);
+    }
+
+    /**
+     * @param periodic whether this is a sweep re-check, whose outcome drives the rule's interval backoff
+     */
+    private void scheduleEvaluation(CraftingRule rule, boolean periodic) {
         if (level == null || level.isClientSide()) {
             return;
         }
+        if (queuedEvaluations.add(rule)) {
+            WorkQueue.get().submit(this, () -> runQueuedEvaluation(rule, periodic));
+        }
+    }
 
-        BlockStatus newStatus;
-
-        if (!gridReady) {
-            newStatus = BlockStatus.OFF;
-        } else if (rules.isEmpty()) {
-            newStatus = BlockStatus.IDLE;
-        } else {
-            // Determine status based on all rules
-            boolean hasError = false;
-            boolean hasWarning = false;
-            boolean hasActive = false;
+    private void runQueuedEvaluation(CraftingRule rule, boolean periodic) {
+        queuedEvaluations.remove(rule);
+        // Skip rules that were removed, replaced or disabled while queued
+        if (rulesById.get(rule.getId()) != rule || !rule.isEnabled()) {
+            return;
+        }
 
-            for (CraftingRule rule : rules) {
-                if (!rule.isEnabled()) {
-                    continue;
-                }
-                RuleStatus status = rule.getStatus();
-                if (status == RuleStatus.ERROR || status == RuleStatus.NO_CPU) {
-                    hasError = true;
-                } else if (status == RuleStatus.MISSING_PATTERN) {
-                    hasWarning = true;
-                } else if (status == RuleStatus.READY || status == RuleStatus.CRAFTING) {
-                    hasActive = true;
-                }
+        RuleStatus previous = rule.getStatus();
+        evaluateRule(rule);
+        if (periodic) {
+            // A re-check that found nothing new makes the next one come later
+            if (rule.getStatus() == previous) {
+                rule.increaseBackoff();
+            } else {
+                rule.resetBackoff();
             }
+        }
+    }
 
-            if (hasError) {
-                newStatus = BlockStatus.ERROR;
-            } else if (hasWarning) {
-                newStatus = BlockStatus.WARNING;
-            } else if (hasActive) {
-                newStatus = BlockStatus.ACTIVE;
-            } else {
-                newStatus = BlockStatus.IDLE;
+    /**
+     * Requests a block status update. The status is derived from the per-category
+     * rule counters and written once, at the end of the current tick.
+     */
+    private void updateBlockStatus() {
+        blockStatusDirty = true;
+        wakeUp();
+    }
+
+    private void onRuleStatusChanged(CraftingRule rule, RuleStatus previous, RuleStatus current) {
+        if (rule.isEnabled()) {
+            statusCounts.count(previous, -1);
+            statusCounts.count(current, 1);
+            updateBlockStatus();
+        }
+    }
+
+    /**
+     * Recounts the status categories from scratch and attaches the status
+     * listener to the current rules. Called whenever the rule set changes.
+     */
+    private void recountRuleStatuses() {
+        statusCounts.clear();
+        for (CraftingRule rule : rules) {
+            rule.setStatusListener(statusListener);
+            if (rule.isEnabled()) {
+                statusCounts.count(rule.getStatus(), 1);
             }
         }
+        updateBlockStatus();
+    }
+
+    /**
+     * Writes the block's visual status if it changed since the last write.
+     */
+    private void flushBlockStatus() {
+        if (!blockStatusDirty || level == null || level.isClientSide()) {
+            return;
+        }
+        blockStatusDirty = false;
+
+        BlockStatus newStatus = statusCounts.toBlockStatus(gridReady);
 
-        // Only update if changed
+        // Only update if changed; the status is purely visual, so neighbours are not notified
         BlockState currentState = getBlockState();
         BlockStatus currentStatus = currentState.getValue(AutorequesterBlock.STATUS);
         if (currentStatus != newStatus) {
-            level.setBlock(worldPosition, currentState.setValue(AutorequesterBlock.STATUS, newStatus), 3);
+            level.setBlock(worldPosition, currentState.setValue(AutorequesterBlock.STATUS, newStatus), Block.UPDATE_CLIENTS);
             LOG.debug("[Autorequester] Block status changed: {} -> {}", currentStatus, newStatus);
         }
     }
@@ -430,7 +599,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         }
 
         // Check if this rule already has an active crafting job
-        ICraftingLink activeJob = activeCraftingJobs.get(rule.getId());
+        ICraftingLink activeJob = craftingJobs.getJob(rule.getId());
         if (activeJob != null && !activeJob.isDone()) {
             rule.setStatus(RuleStatus.CRAFTING);
             return;
@@ -438,13 +607,14 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
         // Clean up completed job
         if (activeJob != null && activeJob.isDone()) {
-            activeCraftingJobs.remove(rule.getId());
+            craftingJobs.removeJob(rule.getId());
         }
 
         // Check if ANY rule is already crafting/calculating the same target item
         // This prevents multiple jobs for the same output item
-        Item targetItem = rule.getTargetItem();
-        if (isItemBeingCrafted(targetItem, rule.getId())) {
+        AEKey targetKey = rule.getTargetKey();
+        if (targetKey != null && craftingJobs.isClaimed(targetKey, rule.getId())) {
+            LOG.debug("[Autorequester] Item {} already being crafted or calculated by another rule", targetKey);
             rule.setStatus(RuleStatus.CRAFTING); // Show as crafting since another rule handles it
             return;
         }
@@ -457,43 +627,96 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         }
 
         // Check for pattern availability
-        AEKey targetKey = AEItemKey.of(rule.getTargetItem().getDefaultInstance());
         if (targetKey == null) {
             rule.setStatus(RuleStatus.MISSING_PATTERN);
             return;
         }
 
-        ICraftingService craftingService = node.getGrid().getCraftingService();
-        if (!craftingService.isCraftable(targetKey)) {
-            rule.setStatus(RuleStatus.MISSING_PATTERN);
+        // A rule that failed recently keeps its failure status until its retry is due
+        if (level != null && rule.getStatus().isError() && rule.isRetryPending(level.getGameTime())) {
             return;
         }
 
+        // Answered from the per-grid cache, which the crafting watcher keeps current
+        if (!CraftabilityCache.get().isCraftable(node.getGrid(), targetKey)) {
+            failRule(rule, RuleStatus.MISSING_PATTERN);
+            return;
+        }
+        ICraftingService craftingService = node.getGrid().getCraftingService();
+
         // Check if we're already calculating for this rule
-        Future<ICraftingPlan> pendingCalc = pendingCalculations.get(rule.getId());
+        Future<ICraftingPlan> pendingCalc = craftingJobs.getCalculation(rule.getId());
         if (pendingCalc != null) {
-            if (pendingCalc.isDone()) {
-                pendingCalculations.remove(rule.getId());
-                try {
-                    ICraftingPlan plan = pendingCalc.get();
-                    submitCraftingJob(rule, plan);
-                } catch (Exception e) {
-                    LOG.warn("[Autorequester] Crafting calculation failed for rule '{}': {}",
-                            rule.getName(), e.getMessage());
-                    rule.setStatus(RuleStatus.ERROR);
-                }
+            if (pendingCalc.isDone() && !craftingJobs.isSubmissionQueued(rule.getId())) {
+                submitCompletedCalculation(rule.getId(), pendingCalc);
             } else {
-                // Still calculating
+                // Still calculating, or waiting in the work queue to be submitted
                 rule.setStatus(RuleStatus.READY);
             }
             return;
         }
 
+        // A plan that no CPU could take would only fail on submission
+        long now = level != null ? level.getGameTime() : 0;
+        if (!cpus.hasCpuForNewJob(craftingService, now, craftingJobs.getCalculationCount())) {
+            parkRule(rule);
+            return;
+        }
+
+        // Calculations are capped server-wide; without a slot the rule waits its turn
+        if (!calculationSlots.tryAcquire(rule.getId())) {
+            rule.setStatus(RuleStatus.QUEUED);
+            return;
+        }
+
         // Start crafting calculation
         startCraftingCalculation(rule, targetKey, craftingService);
         rule.setStatus(RuleStatus.READY);
     }
 
+    private void onCalculationSlotGranted(UUID ruleId) {
+        WorkQueue.get().submit(this, () -> useGrantedSlot(ruleId));
+    }
+
+    /**
+     * Re-evaluates a rule that was granted a calculation slot, and hands the
+     * slot back if the rule did not start a calculation with it.
+     */
+    private void useGrantedSlot(UUID ruleId) {
+        CraftingRule rule = rulesById.get(ruleId);
+        if (rule != null && rule.isEnabled()) {
+            evaluateRule(rule);
+        }
+        calculationSlots.releaseUnused(ruleId);
+    }
+
+    /**
+     * Parks a rule in the NO_CPU state until a crafting CPU frees up. Unlike a
+     * failed submission this starts no backoff; the rule is woken by
+     * {@link #wakeParkedRules()}.
+     */
+    private void parkRule(CraftingRule rule) {
+        if (cpus.park(rule.getId())) {
+            LOG.debug("[Autorequester] Rule '{}' waits for a free crafting CPU", rule.getName());
+        }
+        rule.setStatus(RuleStatus.NO_CPU);
+    }
+
+    /**
+     * Re-evaluates the rules parked for a CPU, and those backing off after a
+     * NO_CPU submission failure. Called when a CPU may have become free.
+     */
+    private void wakeParkedRules() {
+        cpus.invalidate();
+        for (UUID ruleId : cpus.unparkAll()) {
+            CraftingRule rule = rulesById.get(ruleId);
+            if (rule != null) {
+                scheduleEvaluation(rule);
+            }
+        }
+        retryFailedRules(RuleStatus.NO_CPU, null);
+    }
+
     /**
      * Starts an async crafting calculation for a rule.
      */
@@ -511,7 +734,64 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
                 CalculationStrategy.CRAFT_LESS
         );
 
-        pendingCalculations.put(rule.getId(), calculation);
+        UUID ruleId = rule.getId();
+        craftingJobs.putCalculation(ruleId, targetKey, amount, calculation);
+        CompletionQueue.get().watch(calculation, () -> onCalculationDone(ruleId, calculation));
+        // The new plan supersedes whatever the last one was missing
+        starvedRules.release(ruleId);
+        cpus.unpark(ruleId);
+    }
+
+    /**
+     * Queues the submission of a finished calculation. Called on the server
+     * thread by the {@link CompletionQueue} on the tick after the calculation
+     * finished. A calculation stays pending until its submission has run, so
+     * its target remains claimed. Callbacks of cancelled or replaced
+     * calculations are dropped, so they cannot block the submission of the
+     * rule's current one.
+     */
+    private void onCalculationDone(UUID ruleId, Future<ICraftingPlan> calculation) {
+        if (isRemoved() || craftingJobs.getCalculation(ruleId) != calculation) {
+            return;
+        }
+        if (craftingJobs.queueSubmission(ruleId)) {
+            WorkQueue.get().submit(this, () -> submitCompletedCalculation(ruleId, calculation));
+        }
+    }
+
+    /**
+     * Submits the plan of a completed calculation and releases the rule's
+     * in-flight target. Does nothing if the calculation was cancelled or
+     * replaced while the submission was queued, and drops the plan if the
+     * rule's conditions stopped holding while it was computed.
+     */
+    private void submitCompletedCalculation(UUID ruleId, Future<ICraftingPlan> calculation) {
+        if (!craftingJobs.takeCalculation(ruleId, calculation)) {
+            return;
+        }
+        calculationSlots.release();
+
+        CraftingRule rule = rulesById.get(ruleId);
+        if (rule == null || !rule.isEnabled()) {
+            craftingJobs.releaseIfIdle(ruleId);
+            return;
+        }
+
+        if (!evaluateConditions(rule)) {
+            // Stock recovered while the plan was computed; submitting it would overproduce
+            LOG.debug("[Autorequester] Conditions no longer met for rule '{}', dropping its plan", rule.getName());
+            rule.setStatus(RuleStatus.CONDITIONS_NOT_MET);
+        } else {
+            try {
+                ICraftingPlan plan = calculation.get();
+                submitCraftingJob(rule, plan);
+            } catch (Exception e) {
+                LOG.warn("[Autorequester] Crafting calculation failed for rule '{}': {}",
+                        rule.getName(), e.getMessage());
+                failRule(rule, RuleStatus.ERROR);
+            }
+        }
+        craftingJobs.releaseIfIdle(ruleId);
     }
 
     /**
@@ -530,7 +810,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
         if (!plan.missingItems().isEmpty()) {
             LOG.debug("[Autorequester] Crafting plan has missing items, cannot submit");
-            rule.setStatus(RuleStatus.MISSING_PATTERN);
+            starveRule(rule, plan.missingItems(), node.getGrid().getStorageService().getCachedInventory());
             return;
         }
 
@@ -546,7 +826,10 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         if (result.successful()) {
             ICraftingLink link = result.link();
             if (link != null) {
-                activeCraftingJobs.put(rule.getId(), link);
+                craftingJobs.putJob(rule.getId(), plan.finalOutput().what(), link);
+                // The job took a CPU
+                cpus.invalidate();
+                rule.clearRetry();
                 rule.setStatus(RuleStatus.CRAFTING);
                 LOG.info("[Autorequester] Started crafting job for rule '{}'", rule.getName());
             }
@@ -554,9 +837,9 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
             LOG.warn("[Autorequester] Failed to submit crafting job for rule '{}': {}",
                     rule.getName(), result.errorCode());
             if (result.errorCode() == CraftingSubmitErrorCode.NO_CPU_FOUND) {
-                rule.setStatus(RuleStatus.NO_CPU);
+                failRule(rule, RuleStatus.NO_CPU);
             } else {
-                rule.setStatus(RuleStatus.ERROR);
+                failRule(rule, RuleStatus.ERROR);
             }
         }
     }
@@ -573,7 +856,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
     @Override
     public ImmutableSet<ICraftingLink> getRequestedJobs() {
-        return ImmutableSet.copyOf(activeCraftingJobs.values());
+        return craftingJobs.getRequestedJobs();
     }
 
     @Override
@@ -587,33 +870,27 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
     @Override
     public void jobStateChange(ICraftingLink link) {
-        // Find which rule this link belongs to and update its status
-        UUID ruleId = null;
-        for (Map.Entry<UUID, ICraftingLink> entry : activeCraftingJobs.entrySet()) {
-            if (entry.getValue() == link) {
-                ruleId = entry.getKey();
-                break;
-            }
+        UUID ruleId = craftingJobs.getRuleId(link);
+        if (ruleId == null) {
+            return;
         }
 
-        if (ruleId != null) {
-            activeCraftingJobs.remove(ruleId);
+        craftingJobs.removeJob(ruleId);
 
-            if (link.isCanceled()) {
-                LOG.info("[Autorequester] Crafting job canceled for rule");
-            } else {
-                LOG.info("[Autorequester] Crafting job completed for rule");
-            }
+        if (link.isCanceled()) {
+            LOG.info("[Autorequester] Crafting job canceled for rule");
+        } else {
+            LOG.info("[Autorequester] Crafting job completed for rule");
+        }
 
-            // Find the rule and update its status
-            for (CraftingRule rule : rules) {
-                if (rule.getId().equals(ruleId)) {
-                    // Re-evaluate to see if we need to craft more
-                    evaluateRule(rule);
-                    break;
-                }
-            }
+        // Re-evaluate to see if we need to craft more
+        CraftingRule rule = rulesById.get(ruleId);
+        if (rule != null) {
+            scheduleEvaluation(rule);
         }
+
+        // The job's CPU is free again
+        wakeParkedRules();
     }
 
     @Override
@@ -624,6 +901,8 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
     /**
      * Evaluates all conditions for a rule.
      * Returns true if all conditions are satisfied.
+     * Indexed rules are answered from the threshold index over the local count
+     * mirror, which is reconciled against AE2's cached inventory only when stale.
      */
     private boolean evaluateConditions(CraftingRule rule) {
         var node = mainNode.getNode();
@@ -631,16 +910,25 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
             return false;
         }
 
-        var storageService = node.getGrid().getStorageService();
-        var cachedInventory = storageService.getCachedInventory();
+        var cachedInventory = node.getGrid().getStorageService().getCachedInventory();
 
-        for (CraftingCondition condition : rule.getConditions()) {
-            Item item = condition.getItem();
-            if (item == null) {
-                continue;
+        // Indexed rules keep a live count of unsatisfied conditions
+        if (ruleIndex.isIndexed(rule)) {
+            if (ruleIndex.isStale()) {
+                ruleIndex.reconcile(cachedInventory);
+            }
+            boolean met = ruleIndex.conditionsMet(rule);
+            if (!met) {
+                LOG.debug("[Autorequester] Conditions not met for rule '{}'", rule.getName());
             }
+            return met;
+        }
 
-            AEKey key = AEItemKey.of(item.getDefaultInstance());
+        // Indexed loop and guarded logging keep this path allocation-free
+        List<CraftingCondition> conditions = rule.getConditions();
+        for (int i = 0; i < conditions.size(); i++) {
+            CraftingCondition condition = conditions.get(i);
+            AEKey key = condition.getKey();
             if (key == null) {
                 continue;
             }
@@ -650,8 +938,10 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
             boolean satisfied = condition.getOperator().evaluate(currentAmount, threshold);
             if (!satisfied) {
-                LOG.debug("[Autorequester] Condition not met: {} {} {} (current: {})",
-                        item, condition.getOperator().getSymbol(), threshold, currentAmount);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("[Autorequester] Condition not met: {} {} {} (current: {})",
+                            condition.getItem(), condition.getOperator().getSymbol(), threshold, currentAmount);
+                }
                 return false;
             }
         }
@@ -659,64 +949,162 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         return true;
     }
 
-    // ==================== Tick (Minimal - mostly event-driven) ====================
+    // ==================== IGridTickable Implementation ====================
 
-    public void serverTick() {
-        tickCounter++;
+    @Override
+    public TickingRequest getTickingRequest(IGridNode node) {
+        sleeping = !hasTickWork();
+        return new TickingRequest(1, AutorequesterConfig.getCheckInterval(), sleeping);
+    }
 
-        // Throttle operations based on configured check interval
-        if (tickCounter >= AutorequesterConfig.getCheckInterval()) {
-            tickCounter = 0;
+    /**
+     * Event-driven work, driven by AE2's grid tick manager. The block sleeps
+     * until woken by a watcher event, a rule change or a status change.
+     * Finished calculations are reported by the {@link CompletionQueue} and the
+     * periodic fallback sweep is run by the {@link SweepScheduler} instead.
+     */
+    @Override
+    public TickRateModulation tickingRequest(IGridNode node, int ticksSinceLastCall) {
+        // Evaluate rules marked dirty by stack changes since the last tick
+        if (!dirtyRules.isEmpty()) {
+            evaluateDirtyRules();
+        }
 
-            // Check pending crafting calculations (async completions)
-            if (!pendingCalculations.isEmpty()) {
-                checkPendingCalculations();
-            }
+        flushBlockStatus();
+        if (retrySyncPending) {
+            retrySyncPending = false;
+            markDirtyAndSync();
+        }
 
-            // Periodic rule evaluation as fallback for missed storage events
-            if (gridReady) {
-                evaluateAllRules();
-            }
+        if (!dirtyRules.isEmpty()) {
+            return TickRateModulation.URGENT;
         }
+        if (hasTickWork()) {
+            return TickRateModulation.SLOWER;
+        }
+        sleeping = true;
+        return TickRateModulation.SLEEP;
     }
 
+    // ==================== Fallback Sweep ====================
+
     /**
-     * Checks pending async crafting calculations and submits completed ones.
-     * This is needed because calculations complete asynchronously and we need
-     * to poll for their completion.
+     * Starts a fallback pass over all rules, as a safety net for missed storage
+     * events. The count mirror is reconciled once per pass, correcting any drift
+     * from missed watcher notifications.
      */
-    private void checkPendingCalculations() {
-        // Iterate over a copy to avoid ConcurrentModificationException
-        for (var entry : List.copyOf(pendingCalculations.entrySet())) {
-            UUID ruleId = entry.getKey();
-            Future<ICraftingPlan> calculation = entry.getValue();
+    @Override
+    public void startSweep() {
+        sweepRemaining = rules.size();
+        sweepStart = level != null ? level.getGameTime() : 0;
+        checkFreeCpus();
+        // Reconciled here rather than marked stale, so storage events keep
+        // using threshold crossings instead of waking every referencing rule
+        var grid = mainNode.getGrid();
+        if (grid != null) {
+            ruleIndex.reconcile(grid.getStorageService().getCachedInventory());
+        }
+    }
 
-            if (calculation.isDone()) {
-                pendingCalculations.remove(ruleId);
+    /**
+     * Queues re-checks of the next due rules of the current pass, continuing
+     * round-robin from where the previous slice stopped. Rules whose own or
+     * backed-off interval has not elapsed yet are passed over.
+     */
+    @Override
+    public int sweep(int budget) {
+        int size = rules.size();
+        if (!gridReady || size == 0 || level == null) {
+            sweepRemaining = 0;
+            return 0;
+        }
 
-                // Find the rule
-                CraftingRule rule = null;
-                for (CraftingRule r : rules) {
-                    if (r.getId().equals(ruleId)) {
-                        rule = r;
-                        break;
-                    }
-                }
+        sweepRemaining = Math.min(sweepRemaining, size);
+        if (sweepCursor >= size) {
+            sweepCursor = 0;
+        }
+        int checked = 0;
+        while (checked < budget && sweepRemaining > 0) {
+            CraftingRule rule = rules.get(sweepCursor);
+            sweepCursor = (sweepCursor + 1) % size;
+            sweepRemaining--;
 
-                if (rule == null || !rule.isEnabled()) {
-                    continue;
+            if (rule.isEnabled() && rule.isValid()) {
+                // Due times are measured from the pass start, so a pass that spills
+                // over several ticks does not push rules past the next pass
+                if (sweepStart >= rule.getNextCheck()) {
+                    rule.setNextCheck(sweepStart + checkIntervalOf(rule));
+                    scheduleEvaluation(rule, true);
+                    checked++;
                 }
+            } else if (!rule.isEnabled()) {
+                rule.setStatus(RuleStatus.IDLE);
+            }
+        }
+        return checked;
+    }
 
-                try {
-                    ICraftingPlan plan = calculation.get();
-                    submitCraftingJob(rule, plan);
-                } catch (Exception e) {
-                    LOG.warn("[Autorequester] Crafting calculation failed for rule '{}': {}",
-                            rule.getName(), e.getMessage());
-                    rule.setStatus(RuleStatus.ERROR);
-                }
+    /**
+     * Ticks until the rule's next periodic re-check: its own interval or the
+     * configured one, stretched under server load and by the rule's backoff.
+     */
+    private static long checkIntervalOf(CraftingRule rule) {
+        return (long) TickThrottle.get().stretch(baseIntervalOf(rule)) << rule.getBackoff();
+    }
+
+    private static int baseIntervalOf(CraftingRule rule) {
+        return rule.getCheckInterval() > 0 ? rule.getCheckInterval() : AutorequesterConfig.getCheckInterval();
+    }
+
+    /**
+     * Counts the grid's idle crafting CPUs and wakes rules waiting for one if
+     * more became free since the previous pass.
+     */
+    private void checkFreeCpus() {
+        var node = mainNode.getNode();
+        if (node == null || node.getGrid() == null) {
+            return;
+        }
+        if (cpus.checkFreed(node.getGrid().getCraftingService())) {
+            wakeParkedRules();
+        }
+    }
+
+    @Override
+    public boolean isSweeping() {
+        return sweepRemaining > 0;
+    }
+
+    /**
+     * Whether the block has work that needs ticking: dirty rules, an unwritten
+     * status or unsynced retry times. Rules that need periodic
+     * re-checks are covered by the sweep, so they do not keep the block awake.
+     */
+    private boolean hasTickWork() {
+        return !dirtyRules.isEmpty() || blockStatusDirty || retrySyncPending;
+    }
+
+    /**
+     * Wakes the block if it is asleep, so pending work is picked up by the grid tick manager.
+     */
+    private void wakeUp() {
+        if (sleeping) {
+            sleeping = false;
+            mainNode.ifPresent((grid, node) -> grid.getTickManager().wakeDevice(node));
+        }
+    }
+
+    /**
+     * Queues one evaluation per dirty rule and clears the dirty set.
+     */
+    private void evaluateDirtyRules() {
+        if (gridReady) {
+            for (CraftingRule rule : dirtyRules) {
+                scheduleEvaluation(rule);
             }
+            updateBlockStatus();
         }
+        dirtyRules.clear();
     }
 
     // Rule management methods
@@ -726,26 +1114,28 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
     public void addRule(CraftingRule rule) {
         rules.add(rule);
-        onRulesChanged();
+        onRulesChanged(RuleChange.UPDATE, rule, null);
     }
 
     public void removeRule(UUID ruleId) {
-        rules.removeIf(r -> r.getId().equals(ruleId));
-        onRulesChanged();
+        if (rules.removeIf(r -> r.getId().equals(ruleId))) {
+            onRulesChanged(RuleChange.REMOVE, null, null);
+        }
     }
 
     public void removeRule(int index) {
         if (index >= 0 && index < rules.size()) {
             rules.remove(index);
-            onRulesChanged();
+            onRulesChanged(RuleChange.REMOVE, null, null);
         }
     }
 
     public void updateRule(CraftingRule rule) {
         for (int i = 0; i < rules.size(); i++) {
-            if (rules.get(i).getId().equals(rule.getId())) {
+            CraftingRule previous = rules.get(i);
+            if (previous.getId().equals(rule.getId())) {
                 rules.set(i, rule);
-                onRulesChanged();
+                onRulesChanged(RuleChange.between(previous, rule), rule, previous);
                 return;
             }
         }
@@ -754,36 +1144,152 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
     /**
      * Called from network packet to replace all rules.
      * This runs on the server side.
+     *
+     * <p>The GUI sends the whole list after every edit, so the list is diffed
+     * against the current rules by ID. Rules whose definition is unchanged keep
+     * their current instance (and with it their status). A pure reorder, a
+     * single added, removed or edited rule is applied incrementally; anything
+     * else is a bulk replace.
      */
     public void setRulesFromPacket(List<CraftingRule> newRules) {
         LOG.info("[BlockEntity] setRulesFromPacket - receiving {} rules", newRules.size());
+
+        RuleEdit edit = RuleEdit.diff(rules, newRules);
         rules.clear();
-        rules.addAll(newRules);
-        LOG.info("[BlockEntity] After setRulesFromPacket - have {} rules", rules.size());
-        for (int i = 0; i < rules.size(); i++) {
-            CraftingRule r = rules.get(i);
-            LOG.info("[BlockEntity]   Rule[{}]: id={}, name='{}', target={}, batchSize={}, conditions={}",
-                    i, r.getId(), r.getName(),
-                    r.getTargetItem() != null ? r.getTargetItem().toString() : "null",
-                    r.getBatchSize(), r.getConditions().size());
+        rules.addAll(edit.rules());
+        switch (edit.change()) {
+            case BULK_REPLACE -> {
+                LOG.info("[BlockEntity] After setRulesFromPacket - replaced all, have {} rules", rules.size());
+                for (int i = 0; i < rules.size(); i++) {
+                    CraftingRule r = rules.get(i);
+                    LOG.info("[BlockEntity]   Rule[{}]: id={}, name='{}', target={}, batchSize={}, conditions={}",
+                            i, r.getId(), r.getName(),
+                            r.getTargetItem() != null ? r.getTargetItem().toString() : "null",
+                            r.getBatchSize(), r.getConditions().size());
+                }
+            }
+            case REMOVE -> LOG.info("[BlockEntity] setRulesFromPacket - removed rule '{}'", edit.previous().getName());
+            case REORDER -> LOG.debug("[BlockEntity] setRulesFromPacket - order only");
+            default -> LOG.info("[BlockEntity] setRulesFromPacket - {} of rule '{}'", edit.change(), edit.rule().getName());
         }
-        onRulesChanged();
+        onRulesChanged(edit.change(), edit.rule(), edit.previous());
     }
 
     /**
      * Called whenever rules change to update watchers and re-evaluate.
+     * Only the work the kind of change needs is done: a reorder just persists
+     * and syncs, single-rule changes touch only that rule's keys and work, and
+     * only a bulk replace re-evaluates every rule.
+     * @param change the kind of edit
+     * @param rule the added or edited rule, for {@link RuleChange#UPDATE} and {@link RuleChange#TOGGLE}
+     * @param previous the edited rule as it was, or null if it was added or edited in place
      */
-    private void onRulesChanged() {
+    private void onRulesChanged(RuleChange change, @Nullable CraftingRule rule, @Nullable CraftingRule previous) {
         markDirtyAndSync();
-        updateWatchedItems();
-        evaluateAllRules();
+        if (change == RuleChange.REORDER) {
+            return;
+        }
+
+        if (rule != null && rule != previous) {
+            applyRuleChange(change, rule, previous);
+        } else {
+            // The compiled index is rebuilt as a whole, but mirrored counts carry over,
+            // so this does not touch the grid unless new keys appeared
+            reindexRules();
+            dirtyRules.removeIf(r -> !ruleIndex.isIndexed(r));
+            // Calculations whose rule was removed, disabled or retargeted would only be dropped
+            for (UUID ruleId : craftingJobs.getCalculatingRules()) {
+                if (isCalculationStale(ruleId)) {
+                    cancelCalculation(ruleId);
+                }
+            }
+            // Removed rules no longer wait for ingredients or a CPU, and give up their calculation turn
+            starvedRules.releaseIf(ruleId -> !rulesById.containsKey(ruleId));
+            cpus.unparkIf(ruleId -> !rulesById.containsKey(ruleId));
+            if (level != null && !level.isClientSide()) {
+                calculationSlots.cancelIf(ruleId -> !rulesById.containsKey(ruleId));
+            }
+            updateWatchedItems();
+            updateWatchedTargets();
+        }
+
+        if (change == RuleChange.BULK_REPLACE) {
+            evaluateAllRules();
+            return;
+        }
+        if (rule != null) {
+            // An edited rule gets a fresh attempt, re-queued for a calculation slot if it still needs one
+            starvedRules.release(rule.getId());
+            if (level != null && !level.isClientSide()) {
+                calculationSlots.cancel(rule.getId());
+            }
+            rule.clearRetry();
+            if (rule.isEnabled() && rule.isValid()) {
+                scheduleEvaluation(rule);
+            } else if (!rule.isEnabled()) {
+                rule.setStatus(RuleStatus.IDLE);
+            }
+        }
+        updateBlockStatus();
+    }
+
+    /**
+     * Puts a single added, edited or toggled rule in place of its previous
+     * instance without revisiting the other rules. A toggle is swapped into the
+     * compiled index; an edit recompiles it, keeping the mirrored counts.
+     */
+    private void applyRuleChange(RuleChange change, CraftingRule rule, @Nullable CraftingRule previous) {
+        // Watches are added before the previous ones are dropped, so keys both use stay registered
+        watchedKeys.addRule(rule);
+        craftingWatcher.getTargets().addRule(rule);
+        if (previous != null) {
+            previous.setStatusListener(null);
+            if (previous.isEnabled()) {
+                statusCounts.count(previous.getStatus(), -1);
+            }
+            dirtyRules.remove(previous);
+            watchedKeys.removeRule(previous);
+            craftingWatcher.getTargets().removeRule(previous);
+        }
+        rulesById.put(rule.getId(), rule);
+        rule.setStatusListener(statusListener);
+        if (rule.isEnabled()) {
+            statusCounts.count(rule.getStatus(), 1);
+        }
+
+        if (change == RuleChange.TOGGLE && previous != null) {
+            var grid = mainNode.getGrid();
+            ruleIndex.replace(previous, rule, grid != null ? grid.getStorageService().getCachedInventory() : null);
+        } else {
+            ruleIndex.rebuild(rules);
+        }
+
+        // Only the edited rule's own calculation can have gone stale
+        if (isCalculationStale(rule.getId())) {
+            cancelCalculation(rule.getId());
+        }
+    }
+
+    /**
+     * Rebuilds the rule index and the ID lookup after the set of rules changed.
+     */
+    private void reindexRules() {
+        ruleIndex.rebuild(rules);
+        for (CraftingRule rule : rulesById.values()) {
+            rule.setStatusListener(null);
+        }
+        rulesById.clear();
+        for (CraftingRule rule : rules) {
+            rulesById.put(rule.getId(), rule);
+        }
+        recountRuleStatuses();
     }
 
     public void moveRuleUp(int index) {
         if (index > 0 && index < rules.size()) {
             CraftingRule rule = rules.remove(index);
             rules.add(index - 1, rule);
-            onRulesChanged();
+            onRulesChanged(RuleChange.REORDER, null, null);
         }
     }
 
@@ -791,7 +1297,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         if (index >= 0 && index < rules.size() - 1) {
             CraftingRule rule = rules.remove(index);
             rules.add(index + 1, rule);
-            onRulesChanged();
+            onRulesChanged(RuleChange.REORDER, null, null);
         }
     }
 
@@ -799,7 +1305,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         if (index >= 0 && index < rules.size()) {
             CraftingRule copy = rules.get(index).copy();
             rules.add(index + 1, copy);
-            onRulesChanged();
+            onRulesChanged(RuleChange.UPDATE, copy, null);
         }
     }
 
@@ -850,6 +1356,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
         for (int i = 0; i < ruleList.size(); i++) {
             rules.add(CraftingRule.fromNbt(ruleList.getCompound(i)));
         }
+        reindexRules();
 
         // Load connection status (for client sync)
         gridReady = tag.getBoolean("gridReady");
@@ -890,6 +1397,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
                 rules.add(CraftingRule.fromNbt(ruleList.getCompound(i)));
             }
         }
+        reindexRules();
     }
 
     // ==================== Block Entity Lifecycle ====================
@@ -897,6 +1405,7 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
     @Override
     public void setRemoved() {
         super.setRemoved();
+        leaveServerQueues();
         mainNode.destroy();
     }
 
@@ -909,13 +1418,30 @@ public final class AutorequesterBlockEntity extends BlockEntity implements MenuP
 
     @Override
     public void onChunkUnloaded() {
+        leaveServerQueues();
         mainNode.destroy();
     }
 
     public void onRemoved() {
+        leaveServerQueues();
         mainNode.destroy();
     }
 
+    /**
+     * Cancels running calculations, unregisters from the sweep scheduler, drops
+     * this block's queued work and returns its calculation slots.
+     */
+    private void leaveServerQueues() {
+        if (level != null && !level.isClientSide()) {
+            craftingJobs.getCalculatingRules().forEach(this::cancelCalculation);
+            SweepScheduler.get().unregister(this);
+            WorkQueue.get().discard(this);
+            calculationSlots.discard();
+        }
+        queuedEvaluations.clear();
+        craftingJobs.clearQueuedSubmissions();
+    }
+
     // Menu handling
     @Override
     public Component getDisplayName() {
@@ -0,0 +1,79 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.server.CalculationLimiter;
+
+/**
+ * A block's share of the server-wide {@link CalculationLimiter}. Slots freed
+ * elsewhere are granted to the block's waiting rules and held here until the
+ * block starts a calculation with them or hands them back. Server side only.
+ */
+final class CalculationSlots implements CalculationLimiter.Requester {
+    // Called with the rule a slot was reserved for
+    private final Consumer<UUID> onGranted;
+
+    // Rules holding a slot granted by the limiter but not used yet
+    private final Set<UUID> granted = new HashSet<>();
+
+    CalculationSlots(Consumer<UUID> onGranted) {
+        this.onGranted = onGranted;
+    }
+
+    @Override
+    public void onCalculationSlotGranted(UUID ruleId) {
+        granted.add(ruleId);
+        onGranted.accept(ruleId);
+    }
+
+    /**
+     * Takes the slot granted to the rule, or a free one; without either the
+     * rule waits for its turn.
+     * @return true if the rule may start a calculation now
+     */
+    boolean tryAcquire(UUID ruleId) {
+        return granted.remove(ruleId) || CalculationLimiter.get().tryAcquire(this, ruleId);
+    }
+
+    /**
+     * Returns the slot of a calculation that finished or was cancelled.
+     */
+    void release() {
+        CalculationLimiter.get().release(this);
+    }
+
+    /**
+     * Returns the slot granted to the rule, if it was not used.
+     */
+    void releaseUnused(UUID ruleId) {
+        if (granted.remove(ruleId)) {
+            release();
+        }
+    }
+
+    /**
+     * Takes the rule out of the limiter's queue.
+     */
+    void cancel(UUID ruleId) {
+        CalculationLimiter.get().cancel(this, ruleId);
+    }
+
+    /**
+     * Takes the waiting rules that match the filter out of the limiter's queue.
+     */
+    void cancelIf(Predicate<UUID> filter) {
+        CalculationLimiter.get().cancelIf(this, filter);
+    }
+
+    /**
+     * Drops the block's waiting rules and returns all its slots, e.g. when it unloads.
+     */
+    void discard() {
+        CalculationLimiter.get().discard(this);
+        granted.clear();
+    }
+}
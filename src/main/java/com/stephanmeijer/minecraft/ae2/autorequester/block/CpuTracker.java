@@ -0,0 +1,98 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import appeng.api.networking.crafting.ICraftingCPU;
+import appeng.api.networking.crafting.ICraftingService;
+
+/**
+ * Tracks whether the grid's crafting CPUs can take another job, and the
+ * rules parked until one frees up.
+ */
+final class CpuTracker {
+    // Crafting CPUs that were free at the start of the previous sweep pass
+    private int freeCpus;
+
+    // Rules parked because no crafting CPU could take their job
+    private final Set<UUID> parkedRules = new LinkedHashSet<>();
+
+    // Idle CPUs counted at game time countTick, so evaluations in one tick share one count
+    private int idleCpus;
+    private long countTick = -1;
+
+    /**
+     * Whether an idle crafting CPU is left for another job, after the ones the
+     * block's running calculations will claim.
+     * @param now the current game time
+     * @param calculations the block's running calculations
+     */
+    boolean hasCpuForNewJob(ICraftingService craftingService, long now, int calculations) {
+        if (countTick != now) {
+            idleCpus = countIdleCpus(craftingService);
+            countTick = now;
+        }
+        return idleCpus > calculations;
+    }
+
+    /**
+     * Drops this tick's idle CPU count, e.g. because a job took or freed a CPU.
+     */
+    void invalidate() {
+        countTick = -1;
+    }
+
+    /**
+     * Counts the idle CPUs at the start of a sweep pass.
+     * @return true if more became free since the previous pass
+     */
+    boolean checkFreed(ICraftingService craftingService) {
+        int free = countIdleCpus(craftingService);
+        boolean freed = free > freeCpus;
+        freeCpus = free;
+        return freed;
+    }
+
+    /**
+     * Parks a rule until a CPU frees up.
+     * @return false if it already was
+     */
+    boolean park(UUID ruleId) {
+        return parkedRules.add(ruleId);
+    }
+
+    void unpark(UUID ruleId) {
+        parkedRules.remove(ruleId);
+    }
+
+    void unparkIf(Predicate<UUID> filter) {
+        parkedRules.removeIf(filter);
+    }
+
+    /**
+     * Unparks all parked rules.
+     * @return the rules that were parked, in the order they were parked
+     */
+    List<UUID> unparkAll() {
+        List<UUID> parked = new ArrayList<>(parkedRules);
+        parkedRules.clear();
+        return parked;
+    }
+
+    /**
+     * Counts the CPUs that could accept a job: not busy and with storage.
+     */
+    private static int countIdleCpus(ICraftingService craftingService) {
+        int idle = 0;
+        for (ICraftingCPU cpu : craftingService.getCpus()) {
+            if (!cpu.isBusy() && cpu.getAvailableStorage() > 0) {
+                idle++;
+            }
+        }
+        return idle;
+    }
+}
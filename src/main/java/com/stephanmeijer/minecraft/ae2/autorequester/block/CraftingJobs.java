@@ -0,0 +1,204 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import appeng.api.networking.crafting.ICraftingLink;
+import appeng.api.networking.crafting.ICraftingPlan;
+import com.google.common.collect.ImmutableSet;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-rule bookkeeping of a block's crafting work: the running crafting job,
+ * the pending calculation and the batch size it was started with, and the
+ * target each busy rule claims.
+ *
+ * <p>A rule claims its target from the start of its calculation until it has
+ * neither a calculation nor a job left, so other rules of the block do not
+ * start a second job for the same item. Generic in the target key, so the
+ * bookkeeping can be tested without AE2's key registries.
+ */
+final class CraftingJobs<K> {
+    private final Map<UUID, ICraftingLink> jobs = new HashMap<>();
+    private final Map<ICraftingLink, UUID> ruleIdsByLink = new IdentityHashMap<>();
+
+    private final Map<UUID, Future<ICraftingPlan>> calculations = new HashMap<>();
+
+    // Batch size each pending calculation was started with
+    private final Object2LongOpenHashMap<UUID> calculationAmounts = new Object2LongOpenHashMap<>();
+
+    // Rules whose completed calculation is waiting in the server work queue to be submitted
+    private final Set<UUID> queuedSubmissions = new HashSet<>();
+
+    private final Map<K, UUID> ruleIdsByTarget = new HashMap<>();
+    private final Map<UUID, K> targetsByRule = new HashMap<>();
+
+    // View handed to AE2 by getRequestedJobs, rebuilt only after jobs change
+    @Nullable
+    private ImmutableSet<ICraftingLink> requestedJobs;
+
+    @Nullable
+    ICraftingLink getJob(UUID ruleId) {
+        return jobs.get(ruleId);
+    }
+
+    @Nullable
+    UUID getRuleId(ICraftingLink link) {
+        return ruleIdsByLink.get(link);
+    }
+
+    void putJob(UUID ruleId, K target, ICraftingLink link) {
+        ICraftingLink previous = jobs.put(ruleId, link);
+        if (previous != null) {
+            ruleIdsByLink.remove(previous);
+        }
+        ruleIdsByLink.put(link, ruleId);
+        requestedJobs = null;
+        claim(ruleId, target);
+    }
+
+    void removeJob(UUID ruleId) {
+        ICraftingLink link = jobs.remove(ruleId);
+        if (link != null) {
+            ruleIdsByLink.remove(link);
+            requestedJobs = null;
+        }
+        releaseIfIdle(ruleId);
+    }
+
+    ImmutableSet<ICraftingLink> getRequestedJobs() {
+        ImmutableSet<ICraftingLink> links = requestedJobs;
+        if (links == null) {
+            links = ImmutableSet.copyOf(jobs.values());
+            requestedJobs = links;
+        }
+        return links;
+    }
+
+    @Nullable
+    Future<ICraftingPlan> getCalculation(UUID ruleId) {
+        return calculations.get(ruleId);
+    }
+
+    int getCalculationCount() {
+        return calculations.size();
+    }
+
+    /**
+     * Returns the rules with a pending calculation, as a copy that may be
+     * iterated while calculations are removed.
+     */
+    List<UUID> getCalculatingRules() {
+        return new ArrayList<>(calculations.keySet());
+    }
+
+    void putCalculation(UUID ruleId, K target, long amount, Future<ICraftingPlan> calculation) {
+        calculations.put(ruleId, calculation);
+        calculationAmounts.put(ruleId, amount);
+        claim(ruleId, target);
+    }
+
+    /**
+     * Whether the rule's pending calculation was started for the given target and amount.
+     */
+    boolean matches(UUID ruleId, @Nullable K target, long amount) {
+        return Objects.equals(target, targetsByRule.get(ruleId)) && amount == calculationAmounts.getLong(ruleId);
+    }
+
+    /**
+     * Forgets the rule's pending calculation and, unless it has a job, its
+     * claim, e.g. because the calculation is cancelled.
+     * @return the calculation, or null if the rule had none
+     */
+    @Nullable
+    Future<ICraftingPlan> removeCalculation(UUID ruleId) {
+        Future<ICraftingPlan> calculation = calculations.remove(ruleId);
+        if (calculation != null) {
+            calculationAmounts.removeLong(ruleId);
+            queuedSubmissions.remove(ruleId);
+            releaseIfIdle(ruleId);
+        }
+        return calculation;
+    }
+
+    /**
+     * Takes a completed calculation out for submission, if it is still the
+     * rule's current one. The claim is kept, so the job the plan turns into
+     * takes it over; call {@link #releaseIfIdle(UUID)} if none does.
+     * @return false if the calculation was cancelled or replaced
+     */
+    boolean takeCalculation(UUID ruleId, Future<ICraftingPlan> calculation) {
+        if (!calculations.remove(ruleId, calculation)) {
+            return false;
+        }
+        calculationAmounts.removeLong(ruleId);
+        queuedSubmissions.remove(ruleId);
+        return true;
+    }
+
+    /**
+     * Marks the rule's completed calculation as queued for submission.
+     * @return false if it already was
+     */
+    boolean queueSubmission(UUID ruleId) {
+        return queuedSubmissions.add(ruleId);
+    }
+
+    boolean isSubmissionQueued(UUID ruleId) {
+        return queuedSubmissions.contains(ruleId);
+    }
+
+    /**
+     * Forgets queued submissions, e.g. because the work queue dropped them.
+     */
+    void clearQueuedSubmissions() {
+        queuedSubmissions.clear();
+    }
+
+    /**
+     * Whether a rule other than the given one is crafting the target or has a
+     * calculation for it. A finished calculation still claims the target until
+     * its plan has been submitted, or the owner's job and ours would both run.
+     */
+    boolean isClaimed(K target, UUID excludeRuleId) {
+        UUID ownerId = ruleIdsByTarget.get(target);
+        if (ownerId == null || ownerId.equals(excludeRuleId)) {
+            return false;
+        }
+        if (calculations.containsKey(ownerId) || queuedSubmissions.contains(ownerId)) {
+            return true;
+        }
+        ICraftingLink job = jobs.get(ownerId);
+        return job != null && !job.isDone();
+    }
+
+    private void claim(UUID ruleId, K target) {
+        K previous = targetsByRule.put(ruleId, target);
+        if (previous != null && !previous.equals(target)) {
+            ruleIdsByTarget.remove(previous, ruleId);
+        }
+        ruleIdsByTarget.put(target, ruleId);
+    }
+
+    /**
+     * Drops the rule's claim once it has neither a job nor a calculation.
+     */
+    void releaseIfIdle(UUID ruleId) {
+        if (jobs.containsKey(ruleId) || calculations.containsKey(ruleId)) {
+            return;
+        }
+        K target = targetsByRule.remove(ruleId);
+        if (target != null) {
+            ruleIdsByTarget.remove(target, ruleId);
+        }
+    }
+}
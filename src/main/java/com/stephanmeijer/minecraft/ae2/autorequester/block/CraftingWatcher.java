@@ -0,0 +1,69 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import appeng.api.networking.IGrid;
+import appeng.api.networking.IStackWatcher;
+import appeng.api.networking.crafting.ICraftingWatcherNode;
+import appeng.api.stacks.AEKey;
+import com.stephanmeijer.minecraft.ae2.autorequester.server.CraftabilityCache;
+
+/**
+ * Watches the craftability of a block's rule targets. A separate service object,
+ * because ICraftingWatcherNode and IStorageWatcherNode both declare
+ * updateWatcher(IStackWatcher).
+ *
+ * <p>Craftability answers are cached per grid, so a target that gains or loses
+ * a pattern is dropped from the {@link CraftabilityCache}. So is every newly
+ * watched target, since changes to it went unreported until now.
+ */
+final class CraftingWatcher implements ICraftingWatcherNode {
+    // Supplies the block's grid, or null while it has none
+    private final Supplier<IGrid> grid;
+
+    // Called with a watched key that gained or lost a pattern
+    private final Consumer<AEKey> onChange;
+
+    // Called when a new watcher is attached, to register the targets with it
+    private final Runnable onAttached;
+
+    private final WatchedKeys targets = new WatchedKeys(false, this::invalidate);
+
+    CraftingWatcher(Supplier<IGrid> grid, Consumer<AEKey> onChange, Runnable onAttached) {
+        this.grid = grid;
+        this.onChange = onChange;
+        this.onAttached = onAttached;
+    }
+
+    /**
+     * The keys registered with the watcher.
+     */
+    WatchedKeys getTargets() {
+        return targets;
+    }
+
+    @Override
+    public void updateWatcher(IStackWatcher newWatcher) {
+        targets.setWatcher(newWatcher);
+        onAttached.run();
+    }
+
+    @Override
+    public void onRequestChange(AEKey what) {
+        // Requests of other crafting jobs do not affect our rules
+    }
+
+    @Override
+    public void onCraftableChange(AEKey what) {
+        invalidate(what);
+        onChange.accept(what);
+    }
+
+    private void invalidate(AEKey what) {
+        IGrid current = grid.get();
+        if (current != null) {
+            CraftabilityCache.get().invalidate(current, what);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+/**
+ * Retry delays for rules whose crafting request failed.
+ *
+ * <p>The delay doubles with every consecutive failure, up to a maximum. Half
+ * of it is randomized, so rules that failed together (e.g. all waiting for the
+ * same busy CPU) do not all retry on the same tick.
+ */
+final class RetryBackoff {
+    // Doubling stops here; the maximum delay is reached long before
+    private static final int MAX_DOUBLINGS = 20;
+
+    private RetryBackoff() {
+    }
+
+    /**
+     * Returns the ticks to wait before the next attempt.
+     * @param failures consecutive failures before this one
+     * @param baseTicks delay after the first failure
+     * @param maxTicks longest delay
+     * @param jitter random value in [0, 1)
+     */
+    static long delay(int failures, long baseTicks, long maxTicks, double jitter) {
+        long ceiling = Math.max(1, Math.min(baseTicks << Math.min(failures, MAX_DOUBLINGS), maxTicks));
+        long half = ceiling / 2;
+        return ceiling - half + (long) (half * jitter);
+    }
+}
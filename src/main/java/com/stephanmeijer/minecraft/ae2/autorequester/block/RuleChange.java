@@ -0,0 +1,27 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule;
+
+/**
+ * Kinds of rule list edits, used to limit the work done when the rules change.
+ */
+enum RuleChange {
+    /** Rules were moved; their definitions are unchanged. */
+    REORDER,
+    /** A single rule was enabled or disabled. */
+    TOGGLE,
+    /** A single rule was added or edited. */
+    UPDATE,
+    /** One or more rules were removed. */
+    REMOVE,
+    /** The whole list was replaced. */
+    BULK_REPLACE;
+
+    static RuleChange between(CraftingRule previous, CraftingRule updated) {
+        boolean toggled = previous != updated && previous.isEnabled() != updated.isEnabled();
+        if (toggled && previous.hasSameDefinition(updated)) {
+            return TOGGLE;
+        }
+        return UPDATE;
+    }
+}
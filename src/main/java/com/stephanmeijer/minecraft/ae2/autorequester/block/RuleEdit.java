@@ -0,0 +1,81 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The difference between a block's rules and a full rule list sent by the GUI.
+ *
+ * @param change the kind of edit
+ * @param rule the added or edited rule, for {@link RuleChange#UPDATE} and {@link RuleChange#TOGGLE}
+ * @param previous the edited or removed rule as it was, if a single existing rule changed
+ * @param rules the new rule list, keeping the current instance (and with it the
+ *              status) of every rule whose definition is unchanged
+ */
+record RuleEdit(RuleChange change, @Nullable CraftingRule rule, @Nullable CraftingRule previous, List<CraftingRule> rules) {
+
+    /**
+     * Diffs the incoming list against the current rules by ID. A pure reorder,
+     * or a single added, removed or edited rule, is an incremental edit;
+     * anything else is a bulk replace.
+     */
+    static RuleEdit diff(List<CraftingRule> current, List<CraftingRule> incoming) {
+        Map<UUID, CraftingRule> remaining = new HashMap<>();
+        for (CraftingRule rule : current) {
+            remaining.put(rule.getId(), rule);
+        }
+
+        List<CraftingRule> merged = new ArrayList<>(incoming.size());
+        Set<UUID> seen = new HashSet<>();
+        CraftingRule changed = null;
+        CraftingRule previous = null;
+        CraftingRule added = null;
+        boolean bulk = Math.abs(incoming.size() - current.size()) > 1;
+        for (int i = 0; i < incoming.size() && !bulk; i++) {
+            CraftingRule rule = incoming.get(i);
+            CraftingRule existing = remaining.remove(rule.getId());
+            if (!seen.add(rule.getId())) {
+                // Duplicated IDs
+                bulk = true;
+            } else if (existing == null) {
+                if (added == null) {
+                    added = rule;
+                    merged.add(rule);
+                } else {
+                    bulk = true;
+                }
+            } else if (existing.isEnabled() == rule.isEnabled() && existing.hasSameDefinition(rule)) {
+                merged.add(existing);
+            } else if (changed == null) {
+                changed = rule;
+                previous = existing;
+                merged.add(rule);
+            } else {
+                bulk = true;
+            }
+        }
+        // What is left in remaining was removed; only one kind of single-rule change is incremental
+        int edits = remaining.size() + (added != null ? 1 : 0) + (changed != null ? 1 : 0);
+        if (bulk || edits > 1) {
+            return new RuleEdit(RuleChange.BULK_REPLACE, null, null, new ArrayList<>(incoming));
+        }
+        if (added != null) {
+            return new RuleEdit(RuleChange.UPDATE, added, null, merged);
+        }
+        if (!remaining.isEmpty()) {
+            return new RuleEdit(RuleChange.REMOVE, null, remaining.values().iterator().next(), merged);
+        }
+        if (changed == null) {
+            return new RuleEdit(RuleChange.REORDER, null, null, merged);
+        }
+        return new RuleEdit(RuleChange.between(previous, changed), changed, previous, merged);
+    }
+}
@@ -0,0 +1,282 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingCondition;
+import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Inverted index from AE keys to the rules that reference them.
+ * Rebuilt whenever rule definitions change, so a stack notification only
+ * touches the rules that actually reference the changed key.
+ *
+ * <p>Every indexed key gets a dense integer slot. The index also keeps a
+ * slot-aligned mirror of the network's item counts, fed by the stack watcher,
+ * so condition evaluation reads a primitive array instead of querying
+ * AE2's cached inventory for every condition.
+ *
+ * <p>Count changes are run through a {@link ThresholdIndex}, so only rules whose
+ * conditions all became satisfied are woken, and checking whether a rule's
+ * conditions hold is a counter lookup. The conditions themselves are compiled
+ * into a {@link RuleProgram}, so recomputing them never touches the editable
+ * rule objects.
+ *
+ * <p>Disabled rules are compiled too, so enabling or disabling a rule only
+ * swaps it in place. They are never woken and do not count as indexed, and
+ * keys that only disabled rules reference are not watched, so their counts
+ * are re-read when a rule referencing them is enabled.
+ */
+final class RuleIndex {
+    /**
+     * Condition slot used for entries where the key is the rule's target item.
+     */
+    static final int TARGET_SLOT = -1;
+
+    /**
+     * Key slot returned for keys that are not indexed.
+     */
+    static final int NO_SLOT = -1;
+
+    /**
+     * A reference from a key to a rule.
+     * @param rule the rule referencing the key
+     * @param conditionSlot index into the rule's conditions, or {@link #TARGET_SLOT}
+     */
+    record Entry(CraftingRule rule, int conditionSlot) {
+    }
+
+    private Object2IntOpenHashMap<AEKey> slotByKey = newSlotMap();
+    private final List<AEKey> keys = new ArrayList<>();
+    private final List<List<Entry>> entriesBySlot = new ArrayList<>();
+
+    // Indexed rules by rule ID, and the reverse lookup by identity
+    private final List<CraftingRule> indexedRules = new ArrayList<>();
+    private final Reference2IntOpenHashMap<CraftingRule> ruleIds = new Reference2IntOpenHashMap<>();
+
+    private ThresholdIndex thresholds = new ThresholdIndex(0, RuleProgram.EMPTY);
+
+    // Receives rules whose conditions all became satisfied
+    private final Consumer<CraftingRule> wakeTarget;
+    private final ThresholdIndex.WakeListener wakeById;
+
+    // Last known network count per key slot
+    private long[] counts = new long[0];
+
+    // Per key slot: entries of enabled rules; counts of slots without any may be out of date
+    private int[] enabledRefs = new int[0];
+
+    // Set when counts may be out of date and must be reconciled before use
+    private boolean stale = true;
+
+    RuleIndex(Consumer<CraftingRule> wakeTarget) {
+        this.wakeTarget = wakeTarget;
+        this.wakeById = ruleId -> {
+            CraftingRule rule = indexedRules.get(ruleId);
+            if (rule.isEnabled()) {
+                this.wakeTarget.accept(rule);
+            }
+        };
+        ruleIds.defaultReturnValue(-1);
+    }
+
+    /**
+     * Rebuilds the index from scratch. Only valid rules are indexed.
+     * Entries for one rule are added consecutively, so callers can skip
+     * duplicates by comparing against the previous entry's rule.
+     * Counts of keys that stay watched are carried over.
+     */
+    void rebuild(List<CraftingRule> rules) {
+        Object2IntOpenHashMap<AEKey> oldSlots = slotByKey;
+        long[] oldCounts = counts;
+        int[] oldEnabledRefs = enabledRefs;
+
+        slotByKey = newSlotMap();
+        keys.clear();
+        entriesBySlot.clear();
+        indexedRules.clear();
+        ruleIds.clear();
+
+        // Compile the rules into the flat program used for evaluation
+        RuleProgram.Builder builder = new RuleProgram.Builder();
+
+        for (CraftingRule rule : rules) {
+            if (!rule.isValid()) {
+                continue;
+            }
+
+            int ruleId = builder.beginRule();
+            indexedRules.add(rule);
+            ruleIds.put(rule, ruleId);
+
+            addEntry(rule.getTargetKey(), new Entry(rule, TARGET_SLOT));
+
+            List<CraftingCondition> conditions = rule.getConditions();
+            for (int i = 0; i < conditions.size(); i++) {
+                CraftingCondition condition = conditions.get(i);
+                int slot = addEntry(condition.getKey(), new Entry(rule, i));
+                // Conditions without an item are ignored, as in evaluation
+                if (slot != NO_SLOT) {
+                    builder.addCondition(slot, condition.getOperator(), condition.getThreshold());
+                }
+            }
+        }
+
+        thresholds = new ThresholdIndex(keys.size(), builder.build());
+
+        counts = new long[keys.size()];
+        enabledRefs = new int[keys.size()];
+        for (int slot = 0; slot < keys.size(); slot++) {
+            for (Entry entry : entriesBySlot.get(slot)) {
+                if (entry.rule().isEnabled()) {
+                    enabledRefs[slot]++;
+                }
+            }
+            int oldSlot = oldSlots.getInt(keys.get(slot));
+            if (oldSlot != NO_SLOT && oldEnabledRefs[oldSlot] > 0) {
+                counts[slot] = oldCounts[oldSlot];
+            } else if (enabledRefs[slot] > 0) {
+                stale = true;
+            }
+        }
+        if (!stale) {
+            thresholds.recompute(counts);
+        }
+    }
+
+    /**
+     * Swaps in a new instance of an indexed rule whose definition is unchanged,
+     * e.g. because it was enabled or disabled. Keys that nothing enabled
+     * referenced before are re-read from the inventory, since they went unwatched.
+     * @param inventory the grid's current stored amounts, or null to mark the counts stale instead
+     */
+    void replace(CraftingRule previous, CraftingRule rule, @Nullable KeyCounter inventory) {
+        int ruleId = ruleIds.removeInt(previous);
+        if (ruleId == -1) {
+            return;
+        }
+        ruleIds.put(rule, ruleId);
+        indexedRules.set(ruleId, rule);
+        int delta = (rule.isEnabled() ? 1 : 0) - (previous.isEnabled() ? 1 : 0);
+
+        // A key used by both the target and a condition is visited twice; the second visit finds nothing left
+        replaceEntries(rule.getTargetKey(), previous, rule, delta, inventory);
+        for (CraftingCondition condition : rule.getConditions()) {
+            replaceEntries(condition.getKey(), previous, rule, delta, inventory);
+        }
+    }
+
+    private void replaceEntries(@Nullable AEKey key, CraftingRule previous, CraftingRule rule, int delta,
+                                @Nullable KeyCounter inventory) {
+        int slot = key != null ? slotByKey.getInt(key) : NO_SLOT;
+        if (slot == NO_SLOT) {
+            return;
+        }
+        List<Entry> entries = entriesBySlot.get(slot);
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.rule() != previous) {
+                continue;
+            }
+            entries.set(i, new Entry(rule, entry.conditionSlot()));
+            enabledRefs[slot] += delta;
+            if (delta > 0 && enabledRefs[slot] == 1 && !stale) {
+                if (inventory == null) {
+                    stale = true;
+                } else {
+                    updateCount(slot, inventory.get(key));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the given key, or {@link #NO_SLOT} if it is not indexed.
+     */
+    int slotOf(AEKey key) {
+        return slotByKey.getInt(key);
+    }
+
+    /**
+     * Returns all entries referencing the key in the given slot.
+     */
+    List<Entry> entries(int slot) {
+        return entriesBySlot.get(slot);
+    }
+
+    /**
+     * Whether the rule is enabled and its conditions are answered by the index.
+     */
+    boolean isIndexed(CraftingRule rule) {
+        return rule.isEnabled() && ruleIds.containsKey(rule);
+    }
+
+    /**
+     * Whether all conditions of an indexed rule hold for the mirrored counts.
+     * Only meaningful while the mirror is not stale.
+     */
+    boolean conditionsMet(CraftingRule rule) {
+        return thresholds.isSatisfied(ruleIds.getInt(rule));
+    }
+
+    /**
+     * Records a new count for a key. Unless the mirror is stale, rules whose
+     * conditions all became satisfied by this change are passed to the wake target.
+     */
+    void updateCount(int slot, long amount) {
+        long previous = counts[slot];
+        counts[slot] = amount;
+        if (!stale) {
+            thresholds.onCountChanged(slot, previous, amount, wakeById);
+        }
+    }
+
+    /**
+     * Whether the count mirror may be out of date (new keys, grid change).
+     */
+    boolean isStale() {
+        return stale;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Refreshes every mirrored count from AE2's cached inventory.
+     */
+    void reconcile(KeyCounter inventory) {
+        for (int slot = 0; slot < keys.size(); slot++) {
+            counts[slot] = inventory.get(keys.get(slot));
+        }
+        thresholds.recompute(counts);
+        stale = false;
+    }
+
+    private int addEntry(@Nullable AEKey key, Entry entry) {
+        if (key == null) {
+            return NO_SLOT;
+        }
+        int slot = slotByKey.getInt(key);
+        if (slot == NO_SLOT) {
+            slot = keys.size();
+            slotByKey.put(key, slot);
+            keys.add(key);
+            entriesBySlot.add(new ArrayList<>());
+        }
+        entriesBySlot.get(slot).add(entry);
+        return slot;
+    }
+
+    private static Object2IntOpenHashMap<AEKey> newSlotMap() {
+        Object2IntOpenHashMap<AEKey> map = new Object2IntOpenHashMap<>();
+        map.defaultReturnValue(NO_SLOT);
+        return map;
+    }
+}
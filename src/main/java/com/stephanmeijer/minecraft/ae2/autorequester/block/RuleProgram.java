@@ -0,0 +1,185 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.data.ComparisonOperator;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Flat, struct-of-arrays form of a block's rule conditions.
+ *
+ * <p>{@link com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule} and
+ * {@link com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingCondition} stay
+ * the editable model for the GUI and NBT. Whenever the rules change they are
+ * compiled into parallel primitive arrays (key slot, opcode, threshold and rule
+ * per condition), which the evaluation loops walk without chasing object
+ * pointers or switching on the operator enum.
+ *
+ * <p>Conditions are laid out grouped by opcode, in rule order within each
+ * opcode block. Every opcode therefore covers a contiguous range, and the
+ * evaluation loops are specialized per opcode: each loop body is a single fixed
+ * comparison the JIT can inline and unroll, instead of a dispatch per condition.
+ * Condition IDs are positions in this layout, not the order they were added in.
+ */
+final class RuleProgram {
+    static final byte OP_LESS_THAN = 0;
+    static final byte OP_LESS_THAN_OR_EQUAL = 1;
+    static final byte OP_GREATER_THAN = 2;
+    static final byte OP_GREATER_THAN_OR_EQUAL = 3;
+    static final byte OP_EQUAL = 4;
+    static final byte OP_NOT_EQUAL = 5;
+
+    private static final int OPCODE_COUNT = 6;
+
+    static final RuleProgram EMPTY = new Builder().build();
+
+    private final int ruleCount;
+
+    // Per condition
+    private final int[] keySlots;
+    private final byte[] opcodes;
+    private final long[] thresholds;
+    private final int[] conditionRules;
+
+    // Opcode o covers conditions [blockOffsets[o], blockOffsets[o + 1])
+    private final int[] blockOffsets;
+
+    private RuleProgram(int ruleCount, int[] keySlots, byte[] opcodes, long[] thresholds, int[] conditionRules,
+                        int[] blockOffsets) {
+        this.ruleCount = ruleCount;
+        this.keySlots = keySlots;
+        this.opcodes = opcodes;
+        this.thresholds = thresholds;
+        this.conditionRules = conditionRules;
+        this.blockOffsets = blockOffsets;
+    }
+
+    int ruleCount() {
+        return ruleCount;
+    }
+
+    int conditionCount() {
+        return keySlots.length;
+    }
+
+    int keySlot(int condition) {
+        return keySlots[condition];
+    }
+
+    byte opcode(int condition) {
+        return opcodes[condition];
+    }
+
+    long threshold(int condition) {
+        return thresholds[condition];
+    }
+
+    int ruleOf(int condition) {
+        return conditionRules[condition];
+    }
+
+    /**
+     * Tests every condition against the mirrored counts, writing the result
+     * for condition {@code c} to {@code results[c]}.
+     */
+    void testAll(long[] counts, boolean[] results) {
+        int end = blockOffsets[OP_LESS_THAN + 1];
+        for (int c = blockOffsets[OP_LESS_THAN]; c < end; c++) {
+            results[c] = counts[keySlots[c]] < thresholds[c];
+        }
+        end = blockOffsets[OP_LESS_THAN_OR_EQUAL + 1];
+        for (int c = blockOffsets[OP_LESS_THAN_OR_EQUAL]; c < end; c++) {
+            results[c] = counts[keySlots[c]] <= thresholds[c];
+        }
+        end = blockOffsets[OP_GREATER_THAN + 1];
+        for (int c = blockOffsets[OP_GREATER_THAN]; c < end; c++) {
+            results[c] = counts[keySlots[c]] > thresholds[c];
+        }
+        end = blockOffsets[OP_GREATER_THAN_OR_EQUAL + 1];
+        for (int c = blockOffsets[OP_GREATER_THAN_OR_EQUAL]; c < end; c++) {
+            results[c] = counts[keySlots[c]] >= thresholds[c];
+        }
+        end = blockOffsets[OP_EQUAL + 1];
+        for (int c = blockOffsets[OP_EQUAL]; c < end; c++) {
+            results[c] = counts[keySlots[c]] == thresholds[c];
+        }
+        end = blockOffsets[OP_NOT_EQUAL + 1];
+        for (int c = blockOffsets[OP_NOT_EQUAL]; c < end; c++) {
+            results[c] = counts[keySlots[c]] != thresholds[c];
+        }
+    }
+
+    static byte opcodeOf(ComparisonOperator operator) {
+        return switch (operator) {
+            case LESS_THAN -> OP_LESS_THAN;
+            case LESS_THAN_OR_EQUAL -> OP_LESS_THAN_OR_EQUAL;
+            case GREATER_THAN -> OP_GREATER_THAN;
+            case GREATER_THAN_OR_EQUAL -> OP_GREATER_THAN_OR_EQUAL;
+            case EQUAL -> OP_EQUAL;
+            case NOT_EQUAL -> OP_NOT_EQUAL;
+        };
+    }
+
+    /**
+     * Accumulates rules and their conditions in order.
+     * Call {@link #beginRule()} before adding a rule's conditions.
+     */
+    static final class Builder {
+        private final IntArrayList keySlots = new IntArrayList();
+        private final ByteArrayList opcodes = new ByteArrayList();
+        private final LongArrayList thresholds = new LongArrayList();
+        private final IntArrayList conditionRules = new IntArrayList();
+        private int ruleCount;
+
+        /**
+         * Starts a new rule and returns its rule ID.
+         */
+        int beginRule() {
+            return ruleCount++;
+        }
+
+        void addCondition(int keySlot, ComparisonOperator operator, long threshold) {
+            if (ruleCount == 0) {
+                throw new IllegalStateException("beginRule() must be called before addCondition()");
+            }
+            keySlots.add(keySlot);
+            opcodes.add(opcodeOf(operator));
+            thresholds.add(threshold);
+            conditionRules.add(ruleCount - 1);
+        }
+
+        /**
+         * Lays the conditions out grouped by opcode, then by rule. Conditions were
+         * added in rule order, so a stable counting sort on opcode is enough.
+         */
+        RuleProgram build() {
+            int count = keySlots.size();
+
+            // Count conditions per opcode; offsets[o + 1] is the size of opcode o's block
+            int[] offsets = new int[OPCODE_COUNT + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[opcodes.getByte(i) + 1]++;
+            }
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+
+            int[] sortedSlots = new int[count];
+            byte[] sortedOpcodes = new byte[count];
+            long[] sortedThresholds = new long[count];
+            int[] sortedRules = new int[count];
+            int[] cursors = offsets.clone();
+            for (int i = 0; i < count; i++) {
+                byte opcode = opcodes.getByte(i);
+                int rule = conditionRules.getInt(i);
+                int c = cursors[opcode]++;
+                sortedSlots[c] = keySlots.getInt(i);
+                sortedOpcodes[c] = opcode;
+                sortedThresholds[c] = thresholds.getLong(i);
+                sortedRules[c] = rule;
+            }
+
+            return new RuleProgram(ruleCount, sortedSlots, sortedOpcodes, sortedThresholds, sortedRules, offsets);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+
+/**
+ * Rules whose last crafting plan lacked ingredients, with the stored amount of
+ * each ingredient that would cover the shortfall.
+ *
+ * <p>A starved rule is held back until one of its ingredients reaches that
+ * amount, rather than recalculating a plan that is bound to fail again. This
+ * state is not saved, so a loaded rule is never starved.
+ */
+final class StarvedRules {
+    // Rule ID -> (ingredient -> stored amount that covers the shortfall)
+    private final Map<UUID, Object2LongOpenHashMap<AEKey>> neededByRule = new HashMap<>();
+
+    // Reverse index: ingredient -> rules waiting for it
+    private final Map<AEKey, Set<UUID>> rulesByIngredient = new HashMap<>();
+
+    /**
+     * Starves a rule on the ingredients its plan lacked, replacing what it
+     * waited for before.
+     * @param missing the ingredients and amounts the plan lacked
+     * @param inventory the grid's current stored amounts
+     * @return the stored amount of each ingredient the rule now waits for
+     */
+    Object2LongOpenHashMap<AEKey> starve(UUID ruleId, KeyCounter missing, KeyCounter inventory) {
+        release(ruleId);
+        Object2LongOpenHashMap<AEKey> needed = new Object2LongOpenHashMap<>();
+        for (Object2LongMap.Entry<AEKey> entry : missing) {
+            AEKey ingredient = entry.getKey();
+            needed.put(ingredient, inventory.get(ingredient) + entry.getLongValue());
+            rulesByIngredient.computeIfAbsent(ingredient, k -> new HashSet<>()).add(ruleId);
+        }
+        neededByRule.put(ruleId, needed);
+        return needed;
+    }
+
+    /**
+     * Releases the rules waiting for the ingredient whose shortfall the given
+     * stored amount covers.
+     * @param amount the stored amount, or {@link Long#MAX_VALUE} to release every rule waiting for it
+     * @return the released rules
+     */
+    List<UUID> releaseCovered(AEKey ingredient, long amount) {
+        Set<UUID> waiting = rulesByIngredient.get(ingredient);
+        if (waiting == null) {
+            return List.of();
+        }
+        List<UUID> released = new ArrayList<>();
+        for (UUID ruleId : waiting) {
+            if (amount >= neededByRule.get(ruleId).getLong(ingredient)) {
+                released.add(ruleId);
+            }
+        }
+        released.forEach(this::release);
+        return released;
+    }
+
+    /**
+     * Forgets the ingredients a rule was waiting for.
+     */
+    void release(UUID ruleId) {
+        Object2LongOpenHashMap<AEKey> needed = neededByRule.remove(ruleId);
+        if (needed == null) {
+            return;
+        }
+        for (AEKey ingredient : needed.keySet()) {
+            Set<UUID> waiting = rulesByIngredient.get(ingredient);
+            if (waiting != null && waiting.remove(ruleId) && waiting.isEmpty()) {
+                rulesByIngredient.remove(ingredient);
+            }
+        }
+    }
+
+    /**
+     * Forgets the ingredients of the rules that match the filter, e.g. the
+     * ones that were removed.
+     */
+    void releaseIf(Predicate<UUID> filter) {
+        List<UUID> released = new ArrayList<>();
+        for (UUID ruleId : neededByRule.keySet()) {
+            if (filter.test(ruleId)) {
+                released.add(ruleId);
+            }
+        }
+        released.forEach(this::release);
+    }
+
+    boolean contains(UUID ruleId) {
+        return neededByRule.containsKey(ruleId);
+    }
+
+    /**
+     * Whether no rule waits for an ingredient.
+     */
+    boolean isEmpty() {
+        return rulesByIngredient.isEmpty();
+    }
+
+    /**
+     * The ingredients starved rules are waiting for.
+     */
+    Set<AEKey> getIngredients() {
+        return rulesByIngredient.keySet();
+    }
+}
@@ -0,0 +1,47 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.data.RuleStatus;
+
+/**
+ * Number of enabled rules per block status category, maintained on status
+ * transitions so the block status never has to scan the rules.
+ */
+final class StatusCounts {
+    private int errorRules;
+    private int warningRules;
+    private int activeRules;
+
+    void count(RuleStatus status, int delta) {
+        if (status == RuleStatus.ERROR || status == RuleStatus.NO_CPU) {
+            errorRules += delta;
+        } else if (status == RuleStatus.MISSING_PATTERN) {
+            warningRules += delta;
+        } else if (status.isActive()) {
+            activeRules += delta;
+        }
+    }
+
+    void clear() {
+        errorRules = 0;
+        warningRules = 0;
+        activeRules = 0;
+    }
+
+    /**
+     * The block status these counts show.
+     * Priority: ERROR > WARNING > ACTIVE > IDLE > OFF
+     * @param online whether the block is connected to a grid
+     */
+    BlockStatus toBlockStatus(boolean online) {
+        if (!online) {
+            return BlockStatus.OFF;
+        } else if (errorRules > 0) {
+            return BlockStatus.ERROR;
+        } else if (warningRules > 0) {
+            return BlockStatus.WARNING;
+        } else if (activeRules > 0) {
+            return BlockStatus.ACTIVE;
+        }
+        return BlockStatus.IDLE;
+    }
+}
@@ -0,0 +1,297 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.Arrays;
+
+/**
+ * Per-key index of condition thresholds, used to find the conditions whose
+ * result flips when a key's count changes.
+ *
+ * <p>Every condition is normalized to a boundary on its key's count:
+ * <ul>
+ *   <li>rising conditions ({@code >}, {@code >=}) hold when {@code count >= boundary}</li>
+ *   <li>falling conditions ({@code <}, {@code <=}) hold when {@code count < boundary}</li>
+ *   <li>point conditions ({@code =}, {@code !=}) depend on {@code count == threshold}</li>
+ * </ul>
+ * Boundaries are kept in sorted primitive arrays per key, so a count change from
+ * {@code old} to {@code new} only has to binary-search for the boundaries in
+ * between. Each rule keeps a counter of unsatisfied conditions; a rule is woken
+ * only when that counter drops to zero.
+ */
+final class ThresholdIndex {
+    /**
+     * Receives the IDs of rules whose conditions all became satisfied.
+     */
+    @FunctionalInterface
+    interface WakeListener {
+        void wake(int ruleId);
+    }
+
+    private static final int RISING = 0;
+    private static final int FALLING = 1;
+    private static final int POINT = 2;
+
+    // Per key slot: sorted boundaries and the condition IDs they belong to
+    private final long[][] risingBounds;
+    private final int[][] risingConditions;
+    private final long[][] fallingBounds;
+    private final int[][] fallingConditions;
+    private final long[][] pointValues;
+    private final int[][] pointConditions;
+
+    private final RuleProgram program;
+
+    // Per condition ID
+    private final boolean[] negatedPoint;
+    private final boolean[] satisfied;
+
+    // Per rule ID
+    private final int[] unsatisfiedCount;
+
+    /**
+     * Builds the index over a compiled rule program.
+     * @param keyCount number of key slots referenced by the program
+     * @param program the compiled conditions
+     */
+    ThresholdIndex(int keyCount, RuleProgram program) {
+        int conditionCount = program.conditionCount();
+        this.program = program;
+        this.negatedPoint = new boolean[conditionCount];
+        this.satisfied = new boolean[conditionCount];
+        this.unsatisfiedCount = new int[program.ruleCount()];
+
+        // Count conditions per key and direction to size the arrays exactly
+        int[] risingSizes = new int[keyCount];
+        int[] fallingSizes = new int[keyCount];
+        int[] pointSizes = new int[keyCount];
+        for (int c = 0; c < conditionCount; c++) {
+            sizesFor(directionOf(program.opcode(c)), risingSizes, fallingSizes, pointSizes)[program.keySlot(c)]++;
+        }
+
+        this.risingBounds = allocate(risingSizes);
+        this.risingConditions = allocateIds(risingSizes);
+        this.fallingBounds = allocate(fallingSizes);
+        this.fallingConditions = allocateIds(fallingSizes);
+        this.pointValues = allocate(pointSizes);
+        this.pointConditions = allocateIds(pointSizes);
+
+        Arrays.fill(risingSizes, 0);
+        Arrays.fill(fallingSizes, 0);
+        Arrays.fill(pointSizes, 0);
+        for (int c = 0; c < conditionCount; c++) {
+            int slot = program.keySlot(c);
+            byte opcode = program.opcode(c);
+            long bound = boundOf(opcode, program.threshold(c));
+            int direction = directionOf(opcode);
+            if (direction == RISING) {
+                put(risingBounds, risingConditions, risingSizes, slot, bound, c);
+            } else if (direction == FALLING) {
+                put(fallingBounds, fallingConditions, fallingSizes, slot, bound, c);
+            } else {
+                negatedPoint[c] = opcode == RuleProgram.OP_NOT_EQUAL;
+                put(pointValues, pointConditions, pointSizes, slot, bound, c);
+            }
+        }
+
+        for (int slot = 0; slot < keyCount; slot++) {
+            sortByBound(risingBounds[slot], risingConditions[slot]);
+            sortByBound(fallingBounds[slot], fallingConditions[slot]);
+            sortByBound(pointValues[slot], pointConditions[slot]);
+        }
+    }
+
+    /**
+     * Recomputes every condition and rule counter from the given counts.
+     * Used after the count mirror has been reconciled.
+     */
+    void recompute(long[] counts) {
+        program.testAll(counts, satisfied);
+        Arrays.fill(unsatisfiedCount, 0);
+        for (int c = 0; c < satisfied.length; c++) {
+            if (!satisfied[c]) {
+                unsatisfiedCount[program.ruleOf(c)]++;
+            }
+        }
+    }
+
+    /**
+     * Applies a count change for one key, flipping only the conditions whose
+     * boundary lies between the old and new count.
+     * @return true if any condition flipped
+     */
+    boolean onCountChanged(int slot, long oldCount, long newCount, WakeListener listener) {
+        if (oldCount == newCount) {
+            return false;
+        }
+        long low = Math.min(oldCount, newCount);
+        long high = Math.max(oldCount, newCount);
+        boolean flipped = false;
+
+        // Boundaries b with low < b <= high change sides of "count >= b"
+        long[] rising = risingBounds[slot];
+        int risingEnd = upperBound(rising, high);
+        for (int i = upperBound(rising, low); i < risingEnd; i++) {
+            flipped |= flip(risingConditions[slot][i], newCount >= rising[i], listener);
+        }
+        long[] falling = fallingBounds[slot];
+        int fallingEnd = upperBound(falling, high);
+        for (int i = upperBound(falling, low); i < fallingEnd; i++) {
+            flipped |= flip(fallingConditions[slot][i], newCount < falling[i], listener);
+        }
+
+        // Point conditions flip only when the old or new count equals their threshold
+        flipped |= flipPoints(slot, oldCount, newCount, listener);
+        flipped |= flipPoints(slot, newCount, newCount, listener);
+        return flipped;
+    }
+
+    /**
+     * Whether every indexed condition of the rule currently holds.
+     */
+    boolean isSatisfied(int ruleId) {
+        return unsatisfiedCount[ruleId] == 0;
+    }
+
+    int getUnsatisfiedCount(int ruleId) {
+        return unsatisfiedCount[ruleId];
+    }
+
+    /**
+     * Re-checks the point conditions of a key whose threshold equals {@code value}.
+     */
+    private boolean flipPoints(int slot, long value, long newCount, WakeListener listener) {
+        long[] points = pointValues[slot];
+        boolean flipped = false;
+        for (int i = lowerBound(points, value); i < points.length && points[i] == value; i++) {
+            int condition = pointConditions[slot][i];
+            flipped |= flip(condition, pointHolds(condition, newCount, points[i]), listener);
+        }
+        return flipped;
+    }
+
+    private boolean pointHolds(int condition, long count, long threshold) {
+        boolean equal = count == threshold;
+        return negatedPoint[condition] ? !equal : equal;
+    }
+
+    private boolean flip(int condition, boolean holds, WakeListener listener) {
+        if (satisfied[condition] == holds) {
+            return false;
+        }
+        satisfied[condition] = holds;
+        int rule = program.ruleOf(condition);
+        if (holds) {
+            if (--unsatisfiedCount[rule] == 0) {
+                listener.wake(rule);
+            }
+        } else {
+            unsatisfiedCount[rule]++;
+        }
+        return true;
+    }
+
+    /**
+     * First index whose value is greater than {@code value}.
+     */
+    private static int upperBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First index whose value is greater than or equal to {@code value}.
+     */
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int directionOf(byte opcode) {
+        if (opcode == RuleProgram.OP_GREATER_THAN || opcode == RuleProgram.OP_GREATER_THAN_OR_EQUAL) {
+            return RISING;
+        }
+        if (opcode == RuleProgram.OP_LESS_THAN || opcode == RuleProgram.OP_LESS_THAN_OR_EQUAL) {
+            return FALLING;
+        }
+        return POINT;
+    }
+
+    /**
+     * Normalizes a threshold to the boundary used by the opcode's direction.
+     * {@code > t} becomes {@code >= t + 1} and {@code <= t} becomes {@code < t + 1}.
+     */
+    private static long boundOf(byte opcode, long threshold) {
+        if (opcode == RuleProgram.OP_GREATER_THAN || opcode == RuleProgram.OP_LESS_THAN_OR_EQUAL) {
+            return saturatedIncrement(threshold);
+        }
+        return threshold;
+    }
+
+    private static long saturatedIncrement(long value) {
+        return value == Long.MAX_VALUE ? value : value + 1;
+    }
+
+    private static int[] sizesFor(int direction, int[] rising, int[] falling, int[] point) {
+        if (direction == RISING) {
+            return rising;
+        }
+        return direction == FALLING ? falling : point;
+    }
+
+    private static void put(long[][] bounds, int[][] ids, int[] sizes, int slot, long bound, int condition) {
+        int index = sizes[slot]++;
+        bounds[slot][index] = bound;
+        ids[slot][index] = condition;
+    }
+
+    private static long[][] allocate(int[] sizes) {
+        long[][] arrays = new long[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) {
+            arrays[i] = new long[sizes[i]];
+        }
+        return arrays;
+    }
+
+    private static int[][] allocateIds(int[] sizes) {
+        int[][] arrays = new int[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) {
+            arrays[i] = new int[sizes[i]];
+        }
+        return arrays;
+    }
+
+    /**
+     * Sorts parallel arrays by bound (insertion sort; per-key lists are short).
+     */
+    private static void sortByBound(long[] bounds, int[] ids) {
+        for (int i = 1; i < bounds.length; i++) {
+            long bound = bounds[i];
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= 0 && bounds[j] > bound) {
+                bounds[j + 1] = bounds[j];
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            bounds[j + 1] = bound;
+            ids[j + 1] = id;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import appeng.api.networking.IStackWatcher;
+import appeng.api.stacks.AEKey;
+import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingCondition;
+import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keys registered with one of AE2's stack watchers on behalf of a block's
+ * rules: the targets of enabled rules, optionally their condition items, and
+ * the ingredients starved rules are waiting for.
+ *
+ * <p>Keys are reference counted by the rules and ingredients that use them, and
+ * only the difference to the previous set is sent to the watcher: a key is
+ * added when its first reference appears and removed when its last one goes
+ * away. Without a watcher nothing is counted; the full set is registered again
+ * once one is attached.
+ */
+final class WatchedKeys {
+    // Whether condition items are watched besides targets
+    private final boolean conditions;
+
+    // Called with each key the watcher starts watching
+    private final Consumer<AEKey> onWatched;
+
+    @Nullable
+    private IStackWatcher watcher;
+
+    // Watched keys with the number of references to each
+    private Object2IntOpenHashMap<AEKey> references = new Object2IntOpenHashMap<>();
+
+    WatchedKeys(boolean conditions, Consumer<AEKey> onWatched) {
+        this.conditions = conditions;
+        this.onWatched = onWatched;
+    }
+
+    /**
+     * Attaches a new watcher. It starts empty, so every key has to be added again.
+     */
+    void setWatcher(IStackWatcher watcher) {
+        this.watcher = watcher;
+        references.clear();
+    }
+
+    int size() {
+        return references.size();
+    }
+
+    /**
+     * Recounts the references from scratch.
+     * @param ingredients the ingredients starved rules are waiting for
+     * @return the number of keys added to or removed from the watcher
+     */
+    int update(List<CraftingRule> rules, Collection<AEKey> ingredients) {
+        if (watcher == null) {
+            return 0;
+        }
+        Object2IntOpenHashMap<AEKey> counts = new Object2IntOpenHashMap<>();
+        for (CraftingRule rule : rules) {
+            if (rule.isEnabled()) {
+                count(counts, rule.getTargetKey());
+                if (conditions) {
+                    for (CraftingCondition condition : rule.getConditions()) {
+                        count(counts, condition.getKey());
+                    }
+                }
+            }
+        }
+        for (AEKey ingredient : ingredients) {
+            count(counts, ingredient);
+        }
+
+        int changed = 0;
+        for (AEKey key : counts.keySet()) {
+            if (!references.containsKey(key)) {
+                watcher.add(key);
+                onWatched.accept(key);
+                changed++;
+            }
+        }
+        for (AEKey key : references.keySet()) {
+            if (!counts.containsKey(key)) {
+                watcher.remove(key);
+                changed++;
+            }
+        }
+        references = counts;
+        return changed;
+    }
+
+    /**
+     * Adds the references of a single rule, if it is enabled.
+     */
+    void addRule(CraftingRule rule) {
+        if (watcher == null || !rule.isEnabled()) {
+            return;
+        }
+        add(rule.getTargetKey());
+        if (conditions) {
+            for (CraftingCondition condition : rule.getConditions()) {
+                add(condition.getKey());
+            }
+        }
+    }
+
+    /**
+     * Drops the references of a single rule, if it was enabled. Ingredients
+     * the rule was starved on stay watched until the next {@link #update}.
+     */
+    void removeRule(CraftingRule rule) {
+        if (watcher == null || !rule.isEnabled()) {
+            return;
+        }
+        remove(rule.getTargetKey());
+        if (conditions) {
+            for (CraftingCondition condition : rule.getConditions()) {
+                remove(condition.getKey());
+            }
+        }
+    }
+
+    private void add(@Nullable AEKey key) {
+        if (key != null && references.addTo(key, 1) == 0) {
+            watcher.add(key);
+            onWatched.accept(key);
+        }
+    }
+
+    private void remove(@Nullable AEKey key) {
+        if (key == null) {
+            return;
+        }
+        int count = references.getInt(key);
+        if (count > 1) {
+            references.put(key, count - 1);
+        } else if (count == 1) {
+            references.removeInt(key);
+            watcher.remove(key);
+        }
+    }
+
+    private static void count(Object2IntOpenHashMap<AEKey> counts, @Nullable AEKey key) {
+        if (key != null) {
+            counts.addTo(key, 1);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.stephanmeijer.minecraft.ae2.autorequester.data;
 
+import appeng.api.stacks.AEItemKey;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a single condition for a crafting rule.
@@ -16,6 +18,10 @@ public class CraftingCondition {
     private ComparisonOperator operator;
     private long threshold;
 
+    // AE key for the item, resolved once whenever the item changes (not persisted)
+    @Nullable
+    private AEItemKey key;
+
     public CraftingCondition() {
         this.item = Items.AIR;
         this.operator = ComparisonOperator.LESS_THAN;
@@ -26,6 +32,7 @@ public class CraftingCondition {
         this.item = item;
         this.operator = operator;
         this.threshold = threshold;
+        this.key = keyOf(item);
     }
 
     public Item getItem() {
@@ -34,6 +41,15 @@ public class CraftingCondition {
 
     public void setItem(Item item) {
         this.item = item;
+        this.key = keyOf(item);
+    }
+
+    /**
+     * Returns the cached AE key for this condition's item, or null if no item is set.
+     */
+    @Nullable
+    public AEItemKey getKey() {
+        return key;
     }
 
     public ComparisonOperator getOperator() {
@@ -56,6 +72,13 @@ public class CraftingCondition {
         return item != null && item != Items.AIR;
     }
 
+    /**
+     * Whether the other condition checks the same item, operator and threshold.
+     */
+    public boolean isSameAs(CraftingCondition other) {
+        return item == other.item && operator == other.operator && threshold == other.threshold;
+    }
+
     public boolean evaluate(long itemCount) {
         return operator.evaluate(itemCount, threshold);
     }
@@ -74,6 +97,7 @@ public class CraftingCondition {
 
         String itemId = tag.getString("item");
         condition.item = BuiltInRegistries.ITEM.get(ResourceLocation.parse(itemId));
+        condition.key = keyOf(condition.item);
         condition.operator = ComparisonOperator.fromName(tag.getString("operator"));
         condition.threshold = tag.getLong("threshold");
 
@@ -87,4 +111,15 @@ public class CraftingCondition {
     public ItemStack getItemStack() {
         return new ItemStack(item);
     }
+
+    /**
+     * Resolves the AE key for an item's default stack, or null for empty/air.
+     */
+    @Nullable
+    static AEItemKey keyOf(@Nullable Item item) {
+        if (item == null || item == Items.AIR) {
+            return null;
+        }
+        return AEItemKey.of(item.getDefaultInstance());
+    }
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import appeng.api.stacks.AEItemKey;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -12,11 +13,23 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a crafting rule with a target item, batch size, and conditions.
  */
 public class CraftingRule {
+    /**
+     * Notified when a rule's status changes.
+     */
+    @FunctionalInterface
+    public interface StatusListener {
+        void onStatusChanged(CraftingRule rule, RuleStatus previous, RuleStatus current);
+    }
+
+    /** Highest backoff step: quiescent rules are re-checked at most 64 times less often. */
+    public static final int MAX_BACKOFF = 6;
+
     private UUID id;
     private String name;
     private Item targetItem;
@@ -25,6 +38,28 @@ public class CraftingRule {
     private final List<CraftingCondition> conditions;
     private RuleStatus status;
     private long lastTriggered;
+    private int checkInterval;
+    private boolean adaptiveInterval;
+
+    // Backoff steps applied to the check interval while periodic checks find nothing new (not persisted)
+    private int backoff;
+
+    // Game time at which the next periodic check is due (not persisted)
+    private long nextCheck;
+
+    // Consecutive failed crafting attempts (not persisted)
+    private int failures;
+
+    // Game time before which a failed rule is not retried
+    private long retryAt;
+
+    // AE key for the target item, resolved once whenever the target changes (not persisted)
+    @Nullable
+    private AEItemKey targetKey;
+
+    // Owner interested in status transitions (not persisted or copied)
+    @Nullable
+    private StatusListener statusListener;
 
     public CraftingRule() {
         this.id = UUID.randomUUID();
@@ -35,6 +70,7 @@ public class CraftingRule {
         this.conditions = new ArrayList<>();
         this.status = RuleStatus.IDLE;
         this.lastTriggered = 0;
+        this.adaptiveInterval = true;
     }
 
     public UUID getId() {
@@ -65,6 +101,15 @@ public class CraftingRule {
 
     public void setTargetItem(Item targetItem) {
         this.targetItem = targetItem;
+        this.targetKey = CraftingCondition.keyOf(targetItem);
+    }
+
+    /**
+     * Returns the cached AE key for the target item, or null if no target is set.
+     */
+    @Nullable
+    public AEItemKey getTargetKey() {
+        return targetKey;
     }
 
     public int getBatchSize() {
@@ -116,7 +161,18 @@ public class CraftingRule {
     }
 
     public void setStatus(RuleStatus status) {
+        RuleStatus previous = this.status;
         this.status = status;
+        if (previous != status && statusListener != null) {
+            statusListener.onStatusChanged(this, previous, status);
+        }
+    }
+
+    /**
+     * Sets the listener notified on status transitions, or null to detach it.
+     */
+    public void setStatusListener(@Nullable StatusListener statusListener) {
+        this.statusListener = statusListener;
     }
 
     public long getLastTriggered() {
@@ -127,6 +183,103 @@ public class CraftingRule {
         this.lastTriggered = lastTriggered;
     }
 
+    /**
+     * Returns the ticks between periodic re-checks of this rule, or 0 to use the
+     * configured check interval. Checks run on the block's sweep passes, so
+     * intervals shorter than the configured one are rounded up to it.
+     */
+    public int getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(int checkInterval) {
+        this.checkInterval = Math.max(0, checkInterval);
+    }
+
+    /**
+     * Whether periodic re-checks back off while they keep finding nothing new.
+     */
+    public boolean isAdaptiveInterval() {
+        return adaptiveInterval;
+    }
+
+    public void setAdaptiveInterval(boolean adaptiveInterval) {
+        this.adaptiveInterval = adaptiveInterval;
+        if (!adaptiveInterval) {
+            backoff = 0;
+        }
+    }
+
+    /**
+     * Returns the current backoff step; the check interval is multiplied by 2^step.
+     */
+    public int getBackoff() {
+        return backoff;
+    }
+
+    /**
+     * Doubles the check interval, up to {@link #MAX_BACKOFF} steps. Has no
+     * effect unless the adaptive interval is enabled.
+     */
+    public void increaseBackoff() {
+        if (adaptiveInterval && backoff < MAX_BACKOFF) {
+            backoff++;
+        }
+    }
+
+    /**
+     * Returns to the base check interval and makes the rule due on the next sweep pass.
+     */
+    public void resetBackoff() {
+        backoff = 0;
+        nextCheck = 0;
+    }
+
+    public long getNextCheck() {
+        return nextCheck;
+    }
+
+    public void setNextCheck(long nextCheck) {
+        this.nextCheck = nextCheck;
+    }
+
+    /**
+     * Returns the number of consecutive failed crafting attempts.
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the game time before which a failed rule is not retried, or 0.
+     */
+    public long getRetryAt() {
+        return retryAt;
+    }
+
+    /**
+     * Whether a failed rule is still waiting for its retry at the given game time.
+     */
+    public boolean isRetryPending(long gameTime) {
+        return retryAt > gameTime;
+    }
+
+    /**
+     * Records a failed crafting attempt and the game time of the next retry.
+     */
+    public void scheduleRetry(long retryAt) {
+        failures++;
+        this.retryAt = retryAt;
+    }
+
+    /**
+     * Forgets past failures, so the rule is retried on its next evaluation.
+     */
+    public void clearRetry() {
+        failures = 0;
+        retryAt = 0;
+    }
+
     /**
      * A rule is valid if it has a target item.
      * Rules with no conditions are valid and will trigger unconditionally.
@@ -139,6 +292,28 @@ public class CraftingRule {
         return conditions.stream().allMatch(CraftingCondition::isValid);
     }
 
+    /**
+     * Whether the other rule has the same name, target, batch size, check interval and conditions.
+     * Ignores the ID, the enabled flag and runtime state such as the status.
+     */
+    public boolean hasSameDefinition(CraftingRule other) {
+        if (targetItem != other.targetItem || batchSize != other.batchSize || !name.equals(other.name)) {
+            return false;
+        }
+        if (checkInterval != other.checkInterval || adaptiveInterval != other.adaptiveInterval) {
+            return false;
+        }
+        if (conditions.size() != other.conditions.size()) {
+            return false;
+        }
+        for (int i = 0; i < conditions.size(); i++) {
+            if (!conditions.get(i).isSameAs(other.conditions.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public CompoundTag toNbt() {
         CompoundTag tag = new CompoundTag();
 
@@ -150,6 +325,9 @@ public class CraftingRule {
         tag.putBoolean("enabled", enabled);
         tag.putString("status", status.name());
         tag.putLong("lastTriggered", lastTriggered);
+        tag.putInt("checkInterval", checkInterval);
+        tag.putBoolean("adaptiveInterval", adaptiveInterval);
+        tag.putLong("retryAt", retryAt);
 
         ListTag conditionList = new ListTag();
         for (CraftingCondition condition : conditions) {
@@ -169,10 +347,15 @@ public class CraftingRule {
         rule.name = tag.getString("name");
         String itemId = tag.getString("targetItem");
         rule.targetItem = BuiltInRegistries.ITEM.get(ResourceLocation.parse(itemId));
+        rule.targetKey = CraftingCondition.keyOf(rule.targetItem);
         rule.batchSize = tag.getInt("batchSize");
         rule.enabled = tag.getBoolean("enabled");
         rule.status = RuleStatus.fromName(tag.getString("status"));
         rule.lastTriggered = tag.getLong("lastTriggered");
+        rule.checkInterval = Math.max(0, tag.getInt("checkInterval"));
+        // Rules saved before adaptive intervals existed get the default
+        rule.adaptiveInterval = !tag.contains("adaptiveInterval") || tag.getBoolean("adaptiveInterval");
+        rule.retryAt = tag.getLong("retryAt");
 
         ListTag conditionList = tag.getList("conditions", Tag.TAG_COMPOUND);
         for (int i = 0; i < conditionList.size(); i++) {
@@ -190,10 +373,13 @@ public class CraftingRule {
         copy.id = UUID.randomUUID(); // New ID for copy
         copy.name = this.name.isEmpty() ? "" : this.name + " (Copy)";
         copy.targetItem = this.targetItem;
+        copy.targetKey = this.targetKey;
         copy.batchSize = this.batchSize;
         copy.enabled = false; // Disabled by default when duplicated
         copy.status = RuleStatus.IDLE;
         copy.lastTriggered = 0;
+        copy.checkInterval = this.checkInterval;
+        copy.adaptiveInterval = this.adaptiveInterval;
 
         for (CraftingCondition condition : this.conditions) {
             copy.conditions.add(condition.copy());
@@ -210,10 +396,14 @@ public class CraftingRule {
         copy.id = this.id; // Preserve ID for updating
         copy.name = this.name;
         copy.targetItem = this.targetItem;
+        copy.targetKey = this.targetKey;
         copy.batchSize = this.batchSize;
         copy.enabled = this.enabled;
         copy.status = this.status;
         copy.lastTriggered = this.lastTriggered;
+        copy.checkInterval = this.checkInterval;
+        copy.adaptiveInterval = this.adaptiveInterval;
+        copy.retryAt = this.retryAt;
 
         for (CraftingCondition condition : this.conditions) {
             copy.conditions.add(condition.copy());
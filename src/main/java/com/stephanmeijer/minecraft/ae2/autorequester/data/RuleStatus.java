@@ -9,6 +9,7 @@ public enum RuleStatus {
     IDLE("idle", 0x808080),           // Gray - no rules enabled or conditions not met
     READY("ready", 0x00FF00),          // Green - conditions met, ready to craft
     CRAFTING("crafting", 0x00FF00),    // Green - crafting job in progress
+    QUEUED("queued", 0x55AAFF),        // Blue - waiting for a free calculation slot
     CONDITIONS_NOT_MET("conditions_not_met", 0x808080), // Gray - conditions not satisfied
     MISSING_PATTERN("missing_pattern", 0xFFFF00),  // Yellow - no pattern found
     NO_CPU("no_cpu", 0xFF0000),        // Red - no crafting CPU available
@@ -39,7 +40,7 @@ public enum RuleStatus {
     }
 
     public boolean isActive() {
-        return this == READY || this == CRAFTING;
+        return this == READY || this == CRAFTING || this == QUEUED;
     }
 
     /**
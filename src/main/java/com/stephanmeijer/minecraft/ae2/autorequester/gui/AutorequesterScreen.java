@@ -7,6 +7,7 @@ import com.stephanmeijer.minecraft.ae2.autorequester.AutorequesterConfig;
 import com.stephanmeijer.minecraft.ae2.autorequester.data.CraftingRule;
 import com.stephanmeijer.minecraft.ae2.autorequester.data.RuleStatus;
 import com.stephanmeijer.minecraft.ae2.autorequester.network.OpenAutorequesterPacket;
+import net.minecraft.SharedConstants;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.Tooltip;
@@ -410,6 +411,15 @@ public class AutorequesterScreen extends AbstractContainerScreen<AutorequesterMe
                 case NO_CPU -> tooltip.add(Component.translatable("ae2_autorequester.gui.no_cpu").withStyle(s -> s.withColor(0xAAAAAA)));
                 default -> { }
             }
+
+            // Failed rules wait out a backoff before they are retried
+            if (status.isError() && minecraft != null && minecraft.level != null) {
+                long remaining = rule.getRetryAt() - minecraft.level.getGameTime();
+                if (remaining > 0) {
+                    tooltip.add(Component.translatable("ae2_autorequester.gui.retry_in", Math.ceilDiv(remaining, SharedConstants.TICKS_PER_SECOND))
+                            .withStyle(s -> s.withColor(0xAAAAAA)));
+                }
+            }
         }
 
         return tooltip;
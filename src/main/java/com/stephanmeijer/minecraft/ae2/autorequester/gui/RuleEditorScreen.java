@@ -35,7 +35,7 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
     private static final Logger LOG = LoggerFactory.getLogger(RuleEditorScreen.class);
 
     private static final int GUI_WIDTH = 256;
-    private static final int GUI_HEIGHT = 222;
+    private static final int GUI_HEIGHT = 244;
     private static final int PADDING = 8;
     private static final int BUTTON_SIZE = 20;
     private static final int BUTTON_SPACING = 4;
@@ -56,15 +56,21 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
     // Vertical offset to center 20px slot with 16px field: (16 - 20) / 2 = -2
     private static final int TARGET_ITEM_SLOT_Y_OFFSET = (NAME_FIELD_HEIGHT - TARGET_ITEM_SLOT_SIZE) / 2;
 
+    // Check interval row
+    private static final int INTERVAL_ROW_Y = 64;
+    private static final int INTERVAL_FIELD_WIDTH = 60;
+    private static final int ADAPTIVE_BUTTON_X = TARGET_ITEM_LABEL_X;
+    private static final int ADAPTIVE_BUTTON_WIDTH = 96;
+
     // Conditions section
-    private static final int CONDITIONS_HEADER_Y = 68;
+    private static final int CONDITIONS_HEADER_Y = 90;
     private static final int CONDITION_LIST_X = PADDING;
-    private static final int CONDITION_LIST_Y = 80;
+    private static final int CONDITION_LIST_Y = 102;
     private static final int CONDITION_LIST_WIDTH = 228;
     private static final int SCROLLBAR_X = CONDITION_LIST_X + CONDITION_LIST_WIDTH + 2;
     private static final int SCROLLBAR_WIDTH = 10;
     private static final int CONDITION_HEIGHT = 24;
-    private static final int CONDITION_LIST_END_Y = 186;
+    private static final int CONDITION_LIST_END_Y = 208;
     private static final int CONDITION_LIST_HEIGHT = CONDITION_LIST_END_Y - CONDITION_LIST_Y;
     private static final int MAX_VISIBLE_CONDITIONS = CONDITION_LIST_HEIGHT / CONDITION_HEIGHT;
 
@@ -120,6 +126,7 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
     // UI state
     private EditBox nameField;
     private EditBox batchSizeField;
+    private EditBox checkIntervalField;
     private final List<CraftingCondition> conditions = new ArrayList<>();
     private int conditionScrollOffset;
     private int selectedConditionIndex = -1;
@@ -187,6 +194,23 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
         });
         addRenderableWidget(batchSizeField);
 
+        // Check interval field; empty means the server's configured interval
+        checkIntervalField = new EditBox(font, leftPos + FIELD_X, topPos + INTERVAL_ROW_Y,
+                INTERVAL_FIELD_WIDTH, NAME_FIELD_HEIGHT, Component.literal(""));
+        checkIntervalField.setMaxLength(5);
+        checkIntervalField.setValue(editingRule.getCheckInterval() > 0 ? String.valueOf(editingRule.getCheckInterval()) : "");
+        checkIntervalField.setFilter(s -> s.isEmpty() || s.matches("\\d+"));
+        checkIntervalField.setHint(Component.translatable("ae2_autorequester.gui.check_interval_default"));
+        checkIntervalField.setTooltip(Tooltip.create(
+                Component.translatable("ae2_autorequester.gui.check_interval_tooltip", AutorequesterConfig.getCheckInterval())));
+        addRenderableWidget(checkIntervalField);
+
+        // Adaptive interval toggle
+        addRenderableWidget(Button.builder(adaptiveIntervalLabel(), this::onToggleAdaptiveInterval)
+                .bounds(leftPos + ADAPTIVE_BUTTON_X, topPos + INTERVAL_ROW_Y, ADAPTIVE_BUTTON_WIDTH, NAME_FIELD_HEIGHT)
+                .tooltip(Tooltip.create(Component.translatable("ae2_autorequester.gui.adaptive_interval_tooltip")))
+                .build());
+
         // Bottom button row
         int bottomY = topPos + BOTTOM_BUTTON_Y_OFFSET;
         int buttonX = leftPos + PADDING;
@@ -247,6 +271,16 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
         updateButtonStates();
     }
 
+    private void onToggleAdaptiveInterval(Button button) {
+        editingRule.setAdaptiveInterval(!editingRule.isAdaptiveInterval());
+        button.setMessage(adaptiveIntervalLabel());
+    }
+
+    private Component adaptiveIntervalLabel() {
+        return Component.translatable(editingRule.isAdaptiveInterval() ?
+                "ae2_autorequester.gui.adaptive_interval_on" : "ae2_autorequester.gui.adaptive_interval_off");
+    }
+
     private void loadFromContext() {
         if (contextRule != null) {
             // Load from static context
@@ -431,6 +465,8 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
         } catch (NumberFormatException e) {
             editingRule.setBatchSize(64);
         }
+        String interval = checkIntervalField.getValue();
+        editingRule.setCheckInterval(interval.isEmpty() ? 0 : Integer.parseInt(interval));
         // Target item is already synced via click handlers
 
         // Sync conditions
@@ -512,6 +548,8 @@ public class RuleEditorScreen extends AbstractContainerScreen<RuleEditorMenu> im
                 leftPos + PADDING, topPos + BATCH_ROW_Y + 4, GuiColors.TEXT_LABEL);
         guiGraphics.drawString(font, Component.translatable("ae2_autorequester.gui.target_item"),
                 leftPos + TARGET_ITEM_LABEL_X, topPos + BATCH_ROW_Y + 4, GuiColors.TEXT_LABEL);
+        guiGraphics.drawString(font, Component.translatable("ae2_autorequester.gui.check_interval"),
+                leftPos + PADDING, topPos + INTERVAL_ROW_Y + 4, GuiColors.TEXT_LABEL);
 
         // Target item slot
         int targetSlotX = leftPos + TARGET_ITEM_SLOT_X;
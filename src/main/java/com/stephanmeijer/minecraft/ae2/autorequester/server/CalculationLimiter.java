@@ -0,0 +1,194 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.AutorequesterConfig;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+/**
+ * Server-wide cap on the crafting calculations autorequesters have running,
+ * so they cannot flood AE2's calculation threads and starve calculations
+ * requested by players.
+ *
+ * <p>A rule that finds no free slot waits in its block's FIFO. Freed slots go
+ * to the blocks in turn, one rule at a time, so a block with many waiting rules
+ * cannot hold back the others. A granted slot is handed to the block through
+ * {@link Requester#onCalculationSlotGranted(UUID)}; the block must either start
+ * the calculation or {@link #release(Requester)} the slot.
+ */
+public final class CalculationLimiter {
+    /**
+     * A block that starts crafting calculations.
+     */
+    public interface Requester {
+        /**
+         * Called when a slot was reserved for a waiting rule.
+         */
+        void onCalculationSlotGranted(UUID ruleId);
+    }
+
+    private static final CalculationLimiter INSTANCE = new CalculationLimiter(AutorequesterConfig::getMaxConcurrentCalculations);
+
+    private final IntSupplier maxInFlight;
+
+    // Slots held per block, for calculations running or granted but not started yet
+    private final Reference2IntOpenHashMap<Requester> slotsByRequester = new Reference2IntOpenHashMap<>();
+    private int inFlight;
+
+    // Waiting rules per block, in arrival order, and the blocks in turn order
+    private final Reference2ObjectOpenHashMap<Requester, LinkedHashSet<UUID>> waitingByRequester = new Reference2ObjectOpenHashMap<>();
+    private final ArrayDeque<Requester> turns = new ArrayDeque<>();
+    private int waiting;
+
+    CalculationLimiter(IntSupplier maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public static CalculationLimiter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Takes a slot for the rule's calculation if one is free and nobody is
+     * waiting for it; otherwise queues the rule, unless it is already queued.
+     * @return true if the calculation may start now
+     */
+    public boolean tryAcquire(Requester requester, UUID ruleId) {
+        if (waiting == 0 && inFlight < maxInFlight.getAsInt()) {
+            take(requester);
+            return true;
+        }
+        LinkedHashSet<UUID> rules = waitingByRequester.get(requester);
+        if (rules == null) {
+            rules = new LinkedHashSet<>();
+            waitingByRequester.put(requester, rules);
+            turns.add(requester);
+        }
+        if (rules.add(ruleId)) {
+            waiting++;
+        }
+        // Slots may be free with rules waiting after the limit was raised
+        grantWaiting();
+        return false;
+    }
+
+    /**
+     * Returns a slot, after a calculation finished or a granted slot went
+     * unused, and grants free slots to waiting rules.
+     */
+    public void release(Requester requester) {
+        int held = slotsByRequester.getInt(requester);
+        if (held == 0) {
+            return;
+        }
+        if (held == 1) {
+            slotsByRequester.removeInt(requester);
+        } else {
+            slotsByRequester.put(requester, held - 1);
+        }
+        inFlight--;
+        grantWaiting();
+    }
+
+    /**
+     * Takes a rule out of the queue, e.g. because it was removed.
+     */
+    public void cancel(Requester requester, UUID ruleId) {
+        LinkedHashSet<UUID> rules = waitingByRequester.get(requester);
+        if (rules != null && rules.remove(ruleId)) {
+            waiting--;
+            if (rules.isEmpty()) {
+                waitingByRequester.remove(requester);
+                turns.remove(requester);
+            }
+        }
+    }
+
+    /**
+     * Takes the block's waiting rules that match the filter out of the queue,
+     * e.g. the ones that no longer exist.
+     */
+    public void cancelIf(Requester requester, Predicate<UUID> filter) {
+        LinkedHashSet<UUID> rules = waitingByRequester.get(requester);
+        if (rules == null) {
+            return;
+        }
+        int before = rules.size();
+        rules.removeIf(filter);
+        waiting -= before - rules.size();
+        if (rules.isEmpty()) {
+            waitingByRequester.remove(requester);
+            turns.remove(requester);
+        }
+    }
+
+    /**
+     * Drops a block's waiting rules and returns its slots, e.g. when it unloads.
+     */
+    public void discard(Requester requester) {
+        LinkedHashSet<UUID> rules = waitingByRequester.remove(requester);
+        if (rules != null) {
+            waiting -= rules.size();
+            turns.remove(requester);
+        }
+        int held = slotsByRequester.removeInt(requester);
+        if (held > 0) {
+            inFlight -= held;
+            grantWaiting();
+        }
+    }
+
+    private void grantWaiting() {
+        while (waiting > 0 && inFlight < maxInFlight.getAsInt()) {
+            Requester requester = turns.poll();
+            LinkedHashSet<UUID> rules = waitingByRequester.get(requester);
+            Iterator<UUID> iterator = rules.iterator();
+            UUID ruleId = iterator.next();
+            iterator.remove();
+            waiting--;
+            if (rules.isEmpty()) {
+                waitingByRequester.remove(requester);
+            } else {
+                turns.add(requester);
+            }
+            take(requester);
+            requester.onCalculationSlotGranted(ruleId);
+        }
+    }
+
+    private void take(Requester requester) {
+        slotsByRequester.addTo(requester, 1);
+        inFlight++;
+    }
+
+    /**
+     * Number of slots held by running or granted calculations.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Number of rules waiting for a slot.
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Forgets all slots and waiting rules. Called when the server stops.
+     */
+    public void clear() {
+        slotsByRequester.clear();
+        waitingByRequester.clear();
+        turns.clear();
+        inFlight = 0;
+        waiting = 0;
+    }
+}
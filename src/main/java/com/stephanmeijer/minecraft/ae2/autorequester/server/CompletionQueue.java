@@ -0,0 +1,100 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs callbacks on the server thread once futures completed elsewhere, so
+ * finished crafting calculations are picked up on the next server tick
+ * instead of being polled for.
+ *
+ * <p>{@link CompletableFuture}s report their completion directly. Other
+ * futures, such as the ones AE2's crafting calculations return, are waited on
+ * by a pool of daemon threads. At most one waiter blocks per running
+ * calculation, and the calculations are capped by {@link CalculationLimiter}.
+ */
+public final class CompletionQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(CompletionQueue.class);
+
+    private static final CompletionQueue INSTANCE = new CompletionQueue(Executors.newCachedThreadPool(daemonThreads()));
+
+    private final Executor waiters;
+    private final Queue<Runnable> completed = new ConcurrentLinkedQueue<>();
+
+    CompletionQueue(Executor waiters) {
+        this.waiters = waiters;
+    }
+
+    public static CompletionQueue get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues the callback for the server thread once the future is done,
+     * whether it completed, failed or was cancelled.
+     */
+    @SuppressWarnings("FutureReturnValueIgnored")  // The callback sees the outcome through the future itself
+    public void watch(Future<?> future, Runnable callback) {
+        if (future instanceof CompletableFuture<?> completable) {
+            completable.whenComplete((result, error) -> completed.add(callback));
+            return;
+        }
+        waiters.execute(() -> {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                // Only happens when the pool shuts down; the future may not be done
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException e) {
+                LOG.debug("[Autorequester] Watched future ended without a result: {}", e.toString());
+            }
+            completed.add(callback);
+        });
+    }
+
+    /**
+     * Runs the callbacks of the futures completed since the last call. Called
+     * once per server tick, on the server thread.
+     * @return the number of callbacks run
+     */
+    public int drain() {
+        int ran = 0;
+        for (Runnable callback = completed.poll(); callback != null; callback = completed.poll()) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                LOG.error("[Autorequester] Completion callback failed", e);
+            }
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Drops callbacks not run yet. Called when the server stops.
+     */
+    public void clear() {
+        completed.clear();
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "Autorequester Calculation Waiter " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import appeng.api.networking.IGrid;
+import appeng.api.stacks.AEKey;
+import it.unimi.dsi.fastutil.objects.Object2BooleanOpenHashMap;
+
+/**
+ * Server-wide cache of {@code ICraftingService.isCraftable} answers, per grid,
+ * for the targets of the autorequesters on that grid.
+ *
+ * <p>Entries stay valid until AE2 reports a craftability change for the key
+ * through an autorequester's crafting watcher, which calls
+ * {@link #invalidate(IGrid, AEKey)}. Only keys watched by some autorequester
+ * are reported, so a key must be invalidated when it starts being watched.
+ * Grids are held weakly: when grids merge or split the new grid starts with an
+ * empty cache and the old one is dropped with its grid.
+ */
+public final class CraftabilityCache {
+    private static final CraftabilityCache INSTANCE = new CraftabilityCache();
+
+    private final Map<IGrid, Object2BooleanOpenHashMap<AEKey>> entriesByGrid = new WeakHashMap<>();
+
+    private long hits;
+    private long misses;
+
+    private CraftabilityCache() {
+    }
+
+    public static CraftabilityCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether the grid has a pattern for the key, asking the crafting service
+     * only if the answer is not cached.
+     */
+    public boolean isCraftable(IGrid grid, AEKey key) {
+        Object2BooleanOpenHashMap<AEKey> entries = entriesByGrid.computeIfAbsent(grid, g -> new Object2BooleanOpenHashMap<>());
+        if (entries.containsKey(key)) {
+            hits++;
+            return entries.getBoolean(key);
+        }
+        misses++;
+        boolean craftable = grid.getCraftingService().isCraftable(key);
+        entries.put(key, craftable);
+        return craftable;
+    }
+
+    /**
+     * Forgets the cached answer for one key, after its craftability changed or
+     * when it starts being watched.
+     */
+    public void invalidate(IGrid grid, AEKey key) {
+        Object2BooleanOpenHashMap<AEKey> entries = entriesByGrid.get(grid);
+        if (entries != null) {
+            entries.removeBoolean(key);
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Forgets all grids. Called when the server stops.
+     */
+    public void clear() {
+        entriesByGrid.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
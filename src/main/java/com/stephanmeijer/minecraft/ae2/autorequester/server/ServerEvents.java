@@ -0,0 +1,68 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.Locale;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.AE2Autorequester;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+@EventBusSubscriber(modid = AE2Autorequester.MODID)
+public class ServerEvents {
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        MinecraftServer server = event.getServer();
+        TickThrottle.get().tick(server.getTickCount(), server.getAverageTickTimeNanos());
+        SweepScheduler.get().tick(server.getTickCount());
+        // Finished calculations queue their submissions ahead of this tick's work
+        CompletionQueue.get().drain();
+        WorkQueue.get().drain(TickThrottle.get().getEffectiveWorkBudgetNanos());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        SweepScheduler.get().clear();
+        WorkQueue.get().clear();
+        TickThrottle.get().clear();
+        CraftabilityCache.get().clear();
+        CalculationLimiter.get().clear();
+        CompletionQueue.get().clear();
+    }
+
+    @SubscribeEvent
+    public static void registerCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal("autorequester")
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("sweepstats").executes(context -> {
+                    SweepScheduler.Stats stats = SweepScheduler.get().stats();
+                    context.getSource().sendSuccess(() -> Component.translatable(
+                            "ae2_autorequester.command.sweepstats",
+                            stats.blocks(), stats.ticks(), stats.minLoad(),
+                            String.format(Locale.ROOT, "%.1f", stats.averageLoad()), stats.maxLoad()), false);
+                    return stats.blocks();
+                }))
+                .then(Commands.literal("queuestats").executes(context -> {
+                    WorkQueue queue = WorkQueue.get();
+                    context.getSource().sendSuccess(() -> Component.translatable(
+                            "ae2_autorequester.command.queuestats",
+                            queue.getPendingTasks(), queue.getLastDrained(), queue.getCoalescedNotifications(),
+                            CraftabilityCache.get().getHits(), CraftabilityCache.get().getMisses(),
+                            CalculationLimiter.get().getInFlight(), CalculationLimiter.get().getWaiting()), false);
+                    return queue.getPendingTasks();
+                }))
+                .then(Commands.literal("throttle").executes(context -> {
+                    TickThrottle throttle = TickThrottle.get();
+                    context.getSource().sendSuccess(() -> Component.translatable(
+                            "ae2_autorequester.command.throttle",
+                            throttle.getLevel(), String.format(Locale.ROOT, "%.1f", throttle.getLastMspt()),
+                            throttle.getEffectiveCheckInterval(), throttle.getEffectiveMaxRulesPerTick()), false);
+                    return throttle.getLevel();
+                })));
+    }
+}
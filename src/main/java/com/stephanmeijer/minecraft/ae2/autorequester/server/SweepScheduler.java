@@ -0,0 +1,194 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.AutorequesterConfig;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Reference2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+
+/**
+ * Server-wide scheduler for the autorequesters' periodic fallback sweeps.
+ *
+ * <p>Every registered block gets a stable phase within the check interval,
+ * hashed from its position, and starts a sweep pass when the server tick
+ * reaches that phase. Blocks loaded together therefore no longer sweep on the
+ * same tick. A pass that does not fit in one tick is continued on the
+ * following ticks, at most {@link AutorequesterConfig#getMaxRulesPerTick()}
+ * rules per block per tick. While the server lags, {@link TickThrottle}
+ * stretches the interval and shrinks that budget.
+ *
+ * <p>The number of rules swept per tick is recorded, so {@link #stats()} can
+ * show whether the load is spread evenly.
+ */
+public final class SweepScheduler {
+    /**
+     * A block whose rules are re-checked by the sweep.
+     */
+    public interface Sweepable {
+        /**
+         * Starts a new pass over all rules.
+         */
+        void startSweep();
+
+        /**
+         * Re-checks up to {@code budget} rules of the current pass.
+         * @return the number of rules re-checked
+         */
+        int sweep(int budget);
+
+        /**
+         * Whether the current pass still has rules left.
+         */
+        boolean isSweeping();
+    }
+
+    /**
+     * Sweep load over the most recent check interval.
+     * @param blocks number of registered blocks
+     * @param ticks number of ticks covered
+     * @param minLoad fewest rules swept in one tick
+     * @param maxLoad most rules swept in one tick
+     * @param averageLoad average rules swept per tick
+     */
+    public record Stats(int blocks, int ticks, int minLoad, int maxLoad, double averageLoad) {
+    }
+
+    // Enough history for the largest configurable check interval
+    private static final int HISTORY_TICKS = 1200;
+
+    private static final SweepScheduler INSTANCE = new SweepScheduler();
+
+    // Registered blocks with their packed position, in registration order
+    private final Reference2LongLinkedOpenHashMap<Sweepable> positions = new Reference2LongLinkedOpenHashMap<>();
+
+    // Blocks by phase, for the interval they were bucketed with
+    private final List<List<Sweepable>> buckets = new ArrayList<>();
+    private int bucketInterval;
+
+    // Blocks with a pass in progress
+    private final List<Sweepable> active = new ArrayList<>();
+
+    // Rules swept per tick, indexed by tick modulo HISTORY_TICKS
+    private final int[] loadHistory = new int[HISTORY_TICKS];
+    private long lastTick = -1;
+
+    private SweepScheduler() {
+    }
+
+    public static SweepScheduler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a block. Registering an already registered block has no effect.
+     * @param packedPos the block's position, as returned by {@code BlockPos.asLong()}
+     */
+    public void register(Sweepable block, long packedPos) {
+        if (!positions.containsKey(block)) {
+            positions.put(block, packedPos);
+            // Re-bucketed on the next tick
+            bucketInterval = 0;
+        }
+    }
+
+    public void unregister(Sweepable block) {
+        if (positions.containsKey(block)) {
+            positions.removeLong(block);
+            active.remove(block);
+            bucketInterval = 0;
+        }
+    }
+
+    /**
+     * Starts the passes whose phase is due and advances all passes in progress.
+     * Called once per server tick.
+     */
+    public void tick(long tickCount) {
+        int interval = TickThrottle.get().getEffectiveCheckInterval();
+        if (interval != bucketInterval) {
+            rebucket(interval);
+        }
+
+        for (Sweepable block : buckets.get((int) (tickCount % interval))) {
+            if (!block.isSweeping()) {
+                block.startSweep();
+                active.add(block);
+            }
+        }
+
+        int budget = TickThrottle.get().getEffectiveMaxRulesPerTick();
+        int load = 0;
+        Iterator<Sweepable> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            Sweepable block = iterator.next();
+            load += block.sweep(budget);
+            if (!block.isSweeping()) {
+                iterator.remove();
+            }
+        }
+
+        loadHistory[(int) (tickCount % HISTORY_TICKS)] = load;
+        lastTick = tickCount;
+    }
+
+    /**
+     * Returns the sweep load over the most recent check interval.
+     */
+    public Stats stats() {
+        int ticks = (int) Math.min(TickThrottle.get().getEffectiveCheckInterval(), lastTick + 1);
+        return summarize(loadHistory, lastTick, ticks, positions.size());
+    }
+
+    /**
+     * Forgets all blocks and history. Called when the server stops.
+     */
+    public void clear() {
+        positions.clear();
+        buckets.clear();
+        active.clear();
+        bucketInterval = 0;
+        Arrays.fill(loadHistory, 0);
+        lastTick = -1;
+    }
+
+    private void rebucket(int interval) {
+        buckets.clear();
+        for (int i = 0; i < interval; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (Reference2LongMap.Entry<Sweepable> entry : positions.reference2LongEntrySet()) {
+            buckets.get(phaseOf(entry.getLongValue(), interval)).add(entry.getKey());
+        }
+        bucketInterval = interval;
+    }
+
+    /**
+     * Stable phase of a block within the interval, hashed from its packed position.
+     */
+    static int phaseOf(long packedPos, int interval) {
+        return (int) Math.floorMod(HashCommon.mix(packedPos), (long) interval);
+    }
+
+    /**
+     * Summarizes the {@code ticks} history entries ending at {@code lastTick}.
+     */
+    static Stats summarize(int[] history, long lastTick, int ticks, int blocks) {
+        if (ticks <= 0) {
+            return new Stats(blocks, 0, 0, 0, 0);
+        }
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        long total = 0;
+        for (int i = 0; i < ticks; i++) {
+            int load = history[(int) Math.floorMod(lastTick - i, (long) history.length)];
+            min = Math.min(min, load);
+            max = Math.max(max, load);
+            total += load;
+        }
+        return new Stats(blocks, ticks, min, max, (double) total / ticks);
+    }
+}
@@ -0,0 +1,152 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.AutorequesterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Slows the autorequesters down while the server is lagging.
+ *
+ * <p>Once a second the server's average tick time (MSPT) is compared against
+ * {@link AutorequesterConfig#getTargetMspt()}. Each throttle level doubles the
+ * effective check interval and halves the per-tick sweep and work budgets.
+ * The level is raised only after the target has been exceeded for
+ * {@link #RAISE_AFTER} samples in a row, and lowered only after MSPT has stayed
+ * below {@link #RELEASE_RATIO} of the target for {@link #LOWER_AFTER} samples,
+ * so a server hovering around the target does not flip back and forth.
+ */
+public final class TickThrottle {
+    private static final Logger LOG = LoggerFactory.getLogger(TickThrottle.class);
+
+    /** Highest throttle level: eight times the interval, an eighth of the budgets. */
+    static final int MAX_LEVEL = 3;
+
+    /** Ticks between MSPT samples. */
+    static final int SAMPLE_TICKS = 20;
+
+    /** Consecutive samples above the target before the level is raised. */
+    static final int RAISE_AFTER = 3;
+
+    /** Consecutive samples below the release threshold before the level is lowered. */
+    static final int LOWER_AFTER = 10;
+
+    /** Fraction of the target MSPT must drop below to count towards lowering the level. */
+    static final double RELEASE_RATIO = 0.8;
+
+    // Longest effective check interval, matching the sweep scheduler's load history
+    private static final int MAX_INTERVAL = 1200;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final TickThrottle INSTANCE = new TickThrottle();
+
+    private int level;
+    private int samplesOver;
+    private int samplesUnder;
+    private double lastMspt;
+
+    TickThrottle() {
+    }
+
+    public static TickThrottle get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Samples the server's tick time once every {@link #SAMPLE_TICKS} ticks.
+     * Called once per server tick.
+     */
+    public void tick(long tickCount, long averageTickNanos) {
+        if (tickCount % SAMPLE_TICKS == 0) {
+            sample(averageTickNanos / NANOS_PER_MILLI, AutorequesterConfig.getTargetMspt());
+        }
+    }
+
+    /**
+     * Feeds one MSPT sample into the controller.
+     * @param mspt average milliseconds per tick
+     * @param targetMspt the target, or -1 to disable throttling
+     * @return the throttle level after this sample
+     */
+    int sample(double mspt, int targetMspt) {
+        lastMspt = mspt;
+        if (targetMspt == -1) {
+            samplesOver = 0;
+            samplesUnder = 0;
+            setLevel(0);
+            return level;
+        }
+
+        if (mspt > targetMspt) {
+            samplesUnder = 0;
+            if (++samplesOver >= RAISE_AFTER && level < MAX_LEVEL) {
+                samplesOver = 0;
+                setLevel(level + 1);
+            }
+        } else if (mspt < targetMspt * RELEASE_RATIO) {
+            samplesOver = 0;
+            if (++samplesUnder >= LOWER_AFTER && level > 0) {
+                samplesUnder = 0;
+                setLevel(level - 1);
+            }
+        } else {
+            samplesOver = 0;
+            samplesUnder = 0;
+        }
+        return level;
+    }
+
+    private void setLevel(int newLevel) {
+        if (newLevel != level) {
+            LOG.info("[Autorequester] Throttle level {} -> {} (MSPT {})", level, newLevel, Math.round(lastMspt));
+            level = newLevel;
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public double getLastMspt() {
+        return lastMspt;
+    }
+
+    /**
+     * The configured check interval, stretched by the current throttle level.
+     */
+    public int getEffectiveCheckInterval() {
+        return stretch(AutorequesterConfig.getCheckInterval());
+    }
+
+    /**
+     * Stretches an interval in ticks by the current throttle level. Intervals
+     * are not stretched beyond a minute, or beyond themselves if already longer.
+     */
+    public int stretch(int interval) {
+        return Math.min(interval << level, Math.max(interval, MAX_INTERVAL));
+    }
+
+    /**
+     * The configured sweep budget per block and tick, reduced by the current throttle level.
+     */
+    public int getEffectiveMaxRulesPerTick() {
+        return Math.max(1, AutorequesterConfig.getMaxRulesPerTick() >> level);
+    }
+
+    /**
+     * The configured work queue budget per tick, reduced by the current throttle level.
+     */
+    public long getEffectiveWorkBudgetNanos() {
+        return AutorequesterConfig.getWorkBudgetNanos() >> level;
+    }
+
+    /**
+     * Returns to full speed. Called when the server stops.
+     */
+    public void clear() {
+        level = 0;
+        samplesOver = 0;
+        samplesUnder = 0;
+        lastMspt = 0;
+    }
+}
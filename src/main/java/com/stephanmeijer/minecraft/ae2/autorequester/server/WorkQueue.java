@@ -0,0 +1,140 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.ArrayDeque;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server-wide queue for deferred autorequester work: rule evaluations and
+ * crafting job submissions.
+ *
+ * <p>Each owner (a block entity) has its own FIFO of tasks. {@link #drain(long)}
+ * runs one task per owner in turn, so a block with a large backlog cannot starve
+ * the others, and stops once the tick's time budget is used up. Whatever is left
+ * is carried over to the next tick. At least one task runs per drain, so the
+ * queue always makes progress.
+ */
+public final class WorkQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkQueue.class);
+
+    private static final WorkQueue INSTANCE = new WorkQueue();
+
+    private final Reference2ObjectOpenHashMap<Object, ArrayDeque<Runnable>> tasksByOwner = new Reference2ObjectOpenHashMap<>();
+
+    // Owners with queued tasks, in the order they get their next turn
+    private final ArrayDeque<Object> turns = new ArrayDeque<>();
+
+    private int pendingTasks;
+    private int lastDrained;
+
+    // Stack notifications that hit an already-dirty rule, i.e. evaluations never queued
+    private long coalescedNotifications;
+
+    WorkQueue() {
+    }
+
+    public static WorkQueue get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues a task for the given owner. Must be called on the server thread.
+     */
+    public void submit(Object owner, Runnable task) {
+        ArrayDeque<Runnable> tasks = tasksByOwner.get(owner);
+        if (tasks == null) {
+            tasks = new ArrayDeque<>();
+            tasksByOwner.put(owner, tasks);
+            turns.add(owner);
+        }
+        tasks.add(task);
+        pendingTasks++;
+    }
+
+    /**
+     * Drops all queued tasks of the given owner, e.g. when its block is removed.
+     */
+    public void discard(Object owner) {
+        ArrayDeque<Runnable> tasks = tasksByOwner.remove(owner);
+        if (tasks != null) {
+            pendingTasks -= tasks.size();
+            turns.remove(owner);
+        }
+    }
+
+    /**
+     * Runs queued tasks round-robin across owners until the budget is used up.
+     * @param budgetNanos time budget for this call
+     * @return the number of tasks run
+     */
+    public int drain(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int drained = 0;
+        while (!turns.isEmpty()) {
+            Object owner = turns.poll();
+            ArrayDeque<Runnable> tasks = tasksByOwner.get(owner);
+            Runnable task = tasks.poll();
+            if (tasks.isEmpty()) {
+                tasksByOwner.remove(owner);
+            } else {
+                turns.add(owner);
+            }
+            pendingTasks--;
+            drained++;
+
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.error("[Autorequester] Queued task failed", e);
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        lastDrained = drained;
+        return drained;
+    }
+
+    /**
+     * Number of tasks waiting to run.
+     */
+    public int getPendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * Number of tasks run by the most recent {@link #drain(long)}.
+     */
+    public int getLastDrained() {
+        return lastDrained;
+    }
+
+    /**
+     * Counts a stack notification that was absorbed by an already-dirty rule
+     * instead of causing its own evaluation.
+     */
+    public void countCoalescedNotification() {
+        coalescedNotifications++;
+    }
+
+    /**
+     * Number of stack notifications coalesced since the server started.
+     */
+    public long getCoalescedNotifications() {
+        return coalescedNotifications;
+    }
+
+    /**
+     * Drops all queued tasks. Called when the server stops.
+     */
+    public void clear() {
+        tasksByOwner.clear();
+        turns.clear();
+        pendingTasks = 0;
+        lastDrained = 0;
+        coalescedNotifications = 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import appeng.api.networking.crafting.ICraftingPlan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CraftingJobs")
+class CraftingJobsTest {
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final UUID OTHER = UUID.randomUUID();
+
+    private final CraftingJobs<String> jobs = new CraftingJobs<>();
+
+    @Test
+    @DisplayName("a running calculation claims its target for other rules only")
+    void runningCalculationClaims() {
+        jobs.putCalculation(OWNER, "iron", 64, new CompletableFuture<>());
+
+        assertTrue(jobs.isClaimed("iron", OTHER));
+        assertFalse(jobs.isClaimed("iron", OWNER));
+        assertFalse(jobs.isClaimed("gold", OTHER));
+    }
+
+    @Test
+    @DisplayName("a finished calculation keeps its claim until the plan is submitted")
+    void finishedCalculationClaims() {
+        CompletableFuture<ICraftingPlan> calculation = new CompletableFuture<>();
+        jobs.putCalculation(OWNER, "iron", 64, calculation);
+        calculation.complete(null);
+
+        // Done, but the completion callback has not queued the submission yet
+        assertTrue(jobs.isClaimed("iron", OTHER));
+
+        assertTrue(jobs.queueSubmission(OWNER));
+        assertTrue(jobs.isClaimed("iron", OTHER));
+    }
+
+    @Test
+    @DisplayName("a submitted plan that started no job releases the claim")
+    void releasedAfterSubmission() {
+        CompletableFuture<ICraftingPlan> calculation = new CompletableFuture<>();
+        jobs.putCalculation(OWNER, "iron", 64, calculation);
+        calculation.complete(null);
+        jobs.queueSubmission(OWNER);
+
+        assertTrue(jobs.takeCalculation(OWNER, calculation));
+        jobs.releaseIfIdle(OWNER);
+
+        assertFalse(jobs.isClaimed("iron", OTHER));
+    }
+
+    @Test
+    @DisplayName("a cancelled calculation releases the claim")
+    void releasedAfterCancel() {
+        jobs.putCalculation(OWNER, "iron", 64, new CompletableFuture<>());
+
+        assertNotNull(jobs.removeCalculation(OWNER));
+        assertFalse(jobs.isClaimed("iron", OTHER));
+    }
+}
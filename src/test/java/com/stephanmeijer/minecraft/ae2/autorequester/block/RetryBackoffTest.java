@@ -0,0 +1,43 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("RetryBackoff")
+class RetryBackoffTest {
+
+    @Test
+    @DisplayName("doubles the delay with every failure")
+    void doubles() {
+        // Without jitter the delay is half the ceiling
+        assertEquals(10, RetryBackoff.delay(0, 20, 6000, 0));
+        assertEquals(20, RetryBackoff.delay(1, 20, 6000, 0));
+        assertEquals(40, RetryBackoff.delay(2, 20, 6000, 0));
+    }
+
+    @Test
+    @DisplayName("never exceeds the maximum, even after many failures")
+    void capped() {
+        assertEquals(3000, RetryBackoff.delay(10, 20, 6000, 0));
+        assertTrue(RetryBackoff.delay(Integer.MAX_VALUE, 20, 6000, 0.999) <= 6000);
+    }
+
+    @Test
+    @DisplayName("jitter keeps the delay between half and all of the ceiling")
+    void jitterRange() {
+        for (double jitter = 0; jitter < 1; jitter += 0.05) {
+            long delay = RetryBackoff.delay(3, 20, 6000, jitter);
+            assertTrue(delay >= 80 && delay <= 160, () -> "delay " + delay);
+        }
+        assertEquals(80, RetryBackoff.delay(3, 20, 6000, 0));
+    }
+
+    @Test
+    @DisplayName("always waits at least one tick")
+    void atLeastOneTick() {
+        assertEquals(1, RetryBackoff.delay(0, 0, 6000, 0));
+    }
+}
@@ -0,0 +1,129 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.Random;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.data.ComparisonOperator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("RuleProgram")
+class RuleProgramTest {
+
+    @Nested
+    @DisplayName("build")
+    class BuildTests {
+        @Test
+        @DisplayName("keeps each condition attached to its rule after grouping by opcode")
+        void keepsRuleOwnership() {
+            RuleProgram.Builder builder = new RuleProgram.Builder();
+            builder.beginRule();
+            builder.addCondition(0, ComparisonOperator.EQUAL, 5);
+            builder.addCondition(1, ComparisonOperator.LESS_THAN, 10);
+            builder.beginRule();
+            builder.addCondition(0, ComparisonOperator.LESS_THAN, 3);
+            RuleProgram program = builder.build();
+
+            assertEquals(2, program.ruleCount());
+            assertEquals(3, program.conditionCount());
+            for (int c = 0; c < program.conditionCount(); c++) {
+                boolean firstRule = program.threshold(c) != 3;
+                assertEquals(firstRule ? 0 : 1, program.ruleOf(c));
+            }
+        }
+    }
+
+    private static ComparisonOperator operatorOf(byte opcode) {
+        for (ComparisonOperator operator : ComparisonOperator.values()) {
+            if (RuleProgram.opcodeOf(operator) == opcode) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown opcode " + opcode);
+    }
+
+    private static boolean ruleHolds(RuleProgram program, int rule, boolean[] results) {
+        for (int c = 0; c < results.length; c++) {
+            if (program.ruleOf(c) == rule && !results[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nested
+    @DisplayName("testAll")
+    class TestAllTests {
+        @Test
+        @DisplayName("a rule holds only if every one of its conditions does")
+        void requiresAllConditions() {
+            RuleProgram.Builder builder = new RuleProgram.Builder();
+            builder.beginRule();
+            builder.addCondition(0, ComparisonOperator.LESS_THAN, 100);
+            builder.addCondition(1, ComparisonOperator.NOT_EQUAL, 0);
+            RuleProgram program = builder.build();
+            boolean[] results = new boolean[program.conditionCount()];
+
+            program.testAll(new long[] {50, 1}, results);
+            assertTrue(ruleHolds(program, 0, results));
+            program.testAll(new long[] {50, 0}, results);
+            assertFalse(ruleHolds(program, 0, results));
+            program.testAll(new long[] {100, 1}, results);
+            assertFalse(ruleHolds(program, 0, results));
+        }
+
+        @Test
+        @DisplayName("agrees with ComparisonOperator.evaluate for random rule sets")
+        void agreesWithOperators() {
+            Random random = new Random(7);
+            ComparisonOperator[] operators = ComparisonOperator.values();
+            int keys = 4;
+            int rules = 8;
+
+            RuleProgram.Builder builder = new RuleProgram.Builder();
+            int[][] slots = new int[rules][];
+            ComparisonOperator[][] ops = new ComparisonOperator[rules][];
+            long[][] thresholds = new long[rules][];
+            for (int rule = 0; rule < rules; rule++) {
+                builder.beginRule();
+                int size = random.nextInt(6);
+                slots[rule] = new int[size];
+                ops[rule] = new ComparisonOperator[size];
+                thresholds[rule] = new long[size];
+                for (int i = 0; i < size; i++) {
+                    slots[rule][i] = random.nextInt(keys);
+                    ops[rule][i] = operators[random.nextInt(operators.length)];
+                    thresholds[rule][i] = random.nextInt(10);
+                    builder.addCondition(slots[rule][i], ops[rule][i], thresholds[rule][i]);
+                }
+            }
+            RuleProgram program = builder.build();
+
+            boolean[] results = new boolean[program.conditionCount()];
+            for (int step = 0; step < 200; step++) {
+                long[] counts = new long[keys];
+                for (int k = 0; k < keys; k++) {
+                    counts[k] = random.nextInt(12);
+                }
+
+                program.testAll(counts, results);
+                for (int c = 0; c < results.length; c++) {
+                    assertEquals(operatorOf(program.opcode(c)).evaluate(counts[program.keySlot(c)], program.threshold(c)),
+                            results[c]);
+                }
+
+                for (int rule = 0; rule < rules; rule++) {
+                    boolean expected = true;
+                    for (int i = 0; i < slots[rule].length; i++) {
+                        expected &= ops[rule][i].evaluate(counts[slots[rule][i]], thresholds[rule][i]);
+                    }
+                    assertEquals(expected, ruleHolds(program, rule, results));
+                }
+            }
+        }
+    }
+}
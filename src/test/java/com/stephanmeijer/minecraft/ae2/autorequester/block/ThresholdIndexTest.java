@@ -0,0 +1,150 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.block;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.stephanmeijer.minecraft.ae2.autorequester.data.ComparisonOperator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ThresholdIndex")
+class ThresholdIndexTest {
+
+    private static ThresholdIndex single(ComparisonOperator operator, long threshold) {
+        RuleProgram.Builder builder = new RuleProgram.Builder();
+        builder.beginRule();
+        builder.addCondition(0, operator, threshold);
+        return new ThresholdIndex(1, builder.build());
+    }
+
+    @Nested
+    @DisplayName("recompute")
+    class RecomputeTests {
+        @ParameterizedTest
+        @EnumSource(ComparisonOperator.class)
+        @DisplayName("matches ComparisonOperator.evaluate around the threshold")
+        void matchesOperator(ComparisonOperator operator) {
+            ThresholdIndex index = single(operator, 100);
+            for (long count = 98; count <= 102; count++) {
+                index.recompute(new long[] {count});
+                assertEquals(operator.evaluate(count, 100), index.isSatisfied(0),
+                        () -> operator + " at " + index.getUnsatisfiedCount(0));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("onCountChanged")
+    class OnCountChangedTests {
+        @Test
+        @DisplayName("wakes a rule when its last unsatisfied condition flips")
+        void wakesWhenAllSatisfied() {
+            ThresholdIndex index = single(ComparisonOperator.LESS_THAN, 100);
+            index.recompute(new long[] {150});
+            assertFalse(index.isSatisfied(0));
+
+            List<Integer> woken = new ArrayList<>();
+            assertTrue(index.onCountChanged(0, 150, 99, woken::add));
+            assertEquals(List.of(0), woken);
+            assertTrue(index.isSatisfied(0));
+        }
+
+        @Test
+        @DisplayName("does nothing when no threshold is crossed")
+        void ignoresChangesWithoutCrossing() {
+            ThresholdIndex index = single(ComparisonOperator.LESS_THAN, 100);
+            index.recompute(new long[] {150});
+
+            List<Integer> woken = new ArrayList<>();
+            assertFalse(index.onCountChanged(0, 150, 120, woken::add));
+            assertTrue(woken.isEmpty());
+        }
+
+        @Test
+        @DisplayName("never wakes a rule on a frequently changing key that crosses no threshold")
+        void busyKeyKeepsBackoff() {
+            // Waking is the only path that resets a rule's backed-off check interval
+            ThresholdIndex index = single(ComparisonOperator.LESS_THAN, 100);
+            long count = 5000;
+            index.recompute(new long[] {count});
+
+            List<Integer> woken = new ArrayList<>();
+            Random random = new Random(7);
+            for (int change = 0; change < 1000; change++) {
+                long next = 100 + random.nextInt(10_000);
+                index.onCountChanged(0, count, next, woken::add);
+                count = next;
+            }
+            assertTrue(woken.isEmpty());
+            assertFalse(index.isSatisfied(0));
+        }
+
+        @Test
+        @DisplayName("does not wake a rule that still has unsatisfied conditions")
+        void waitsForAllConditions() {
+            // Rule 0: key 0 < 100 and key 1 > 10
+            RuleProgram.Builder builder = new RuleProgram.Builder();
+            builder.beginRule();
+            builder.addCondition(0, ComparisonOperator.LESS_THAN, 100);
+            builder.addCondition(1, ComparisonOperator.GREATER_THAN, 10);
+            ThresholdIndex index = new ThresholdIndex(2, builder.build());
+            index.recompute(new long[] {150, 5});
+            assertEquals(2, index.getUnsatisfiedCount(0));
+
+            List<Integer> woken = new ArrayList<>();
+            index.onCountChanged(0, 150, 50, woken::add);
+            assertTrue(woken.isEmpty());
+            assertEquals(1, index.getUnsatisfiedCount(0));
+
+            index.onCountChanged(1, 5, 11, woken::add);
+            assertEquals(List.of(0), woken);
+        }
+
+        @Test
+        @DisplayName("agrees with a full recompute for random count changes")
+        void agreesWithRecompute() {
+            Random random = new Random(42);
+            ComparisonOperator[] operators = ComparisonOperator.values();
+            int keys = 3;
+            int rules = 5;
+            int conditions = 20;
+
+            // Rules are compiled in order; give each rule a random number of conditions
+            RuleProgram.Builder builder = new RuleProgram.Builder();
+            for (int rule = 0; rule < rules; rule++) {
+                builder.beginRule();
+                for (int c = random.nextInt(conditions / rules * 2); c > 0; c--) {
+                    builder.addCondition(random.nextInt(keys), operators[random.nextInt(operators.length)],
+                            random.nextInt(20));
+                }
+            }
+            RuleProgram program = builder.build();
+
+            ThresholdIndex incremental = new ThresholdIndex(keys, program);
+            ThresholdIndex reference = new ThresholdIndex(keys, program);
+            long[] counts = new long[keys];
+            incremental.recompute(counts);
+
+            for (int step = 0; step < 500; step++) {
+                int slot = random.nextInt(keys);
+                long next = random.nextInt(25);
+                incremental.onCountChanged(slot, counts[slot], next, rule -> { });
+                counts[slot] = next;
+
+                reference.recompute(counts);
+                for (int rule = 0; rule < rules; rule++) {
+                    assertEquals(reference.getUnsatisfiedCount(rule), incremental.getUnsatisfiedCount(rule));
+                    assertEquals(reference.isSatisfied(rule), incremental.isSatisfied(rule));
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.stephanmeijer.minecraft.ae2.autorequester.data;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.UUID;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -111,6 +117,53 @@ class CraftingRuleSerializationTest {
             assertEquals(123456789L, tag.getLong("lastTriggered"));
         }
 
+        @Test
+        @DisplayName("NBT uses 'checkInterval' field for the rule's own check interval")
+        void usesCheckIntervalField() {
+            CompoundTag tag = new CompoundTag();
+            tag.putInt("checkInterval", 200);
+
+            assertTrue(tag.contains("checkInterval"));
+            assertEquals(200, tag.getInt("checkInterval"));
+        }
+
+        @Test
+        @DisplayName("missing 'checkInterval' reads as 0 (use the configured interval)")
+        void missingCheckIntervalDefaultsToConfigured() {
+            assertEquals(0, new CompoundTag().getInt("checkInterval"));
+        }
+
+        @Test
+        @DisplayName("NBT uses 'adaptiveInterval' field for interval backoff")
+        void usesAdaptiveIntervalField() {
+            CompoundTag tag = new CompoundTag();
+            tag.putBoolean("adaptiveInterval", false);
+
+            assertTrue(tag.contains("adaptiveInterval"));
+            assertFalse(tag.getBoolean("adaptiveInterval"));
+        }
+
+        @Test
+        @DisplayName("NBT uses 'retryAt' field for the game time of a failed rule's next retry")
+        void usesRetryAtField() throws IOException {
+            CompoundTag tag = new CompoundTag();
+            tag.putLong("retryAt", 72_345L);
+
+            // Through the binary format chunks and block entity data are saved in
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            NbtIo.write(tag, new DataOutputStream(bytes));
+            CompoundTag read = NbtIo.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+            assertTrue(read.contains("retryAt"));
+            assertEquals(72_345L, read.getLong("retryAt"));
+        }
+
+        @Test
+        @DisplayName("missing 'retryAt' reads as 0 (no retry pending)")
+        void missingRetryAtDefaultsToNone() {
+            assertEquals(0L, new CompoundTag().getLong("retryAt"));
+        }
+
         @Test
         @DisplayName("NBT uses 'conditions' field for conditions list")
         void usesConditionsField() {
@@ -384,6 +437,9 @@ class CraftingRuleSerializationTest {
             expectedFormat.putBoolean("enabled", true);
             expectedFormat.putString("status", "READY");
             expectedFormat.putLong("lastTriggered", 12345L);
+            expectedFormat.putInt("checkInterval", 0);
+            expectedFormat.putBoolean("adaptiveInterval", true);
+            expectedFormat.putLong("retryAt", 0L);
 
             ListTag conditions = new ListTag();
             CompoundTag cond = new CompoundTag();
@@ -401,6 +457,9 @@ class CraftingRuleSerializationTest {
             assertTrue(expectedFormat.contains("enabled"));
             assertTrue(expectedFormat.contains("status"));
             assertTrue(expectedFormat.contains("lastTriggered"));
+            assertTrue(expectedFormat.contains("checkInterval"));
+            assertTrue(expectedFormat.contains("adaptiveInterval"));
+            assertTrue(expectedFormat.contains("retryAt"));
             assertTrue(expectedFormat.contains("conditions"));
         }
 
@@ -30,6 +30,7 @@ class RuleStatusTest {
             assertFalse(RuleStatus.IDLE.isError());
             assertFalse(RuleStatus.READY.isError());
             assertFalse(RuleStatus.CRAFTING.isError());
+            assertFalse(RuleStatus.QUEUED.isError());
             assertFalse(RuleStatus.CONDITIONS_NOT_MET.isError());
         }
     }
@@ -59,10 +60,11 @@ class RuleStatusTest {
     @DisplayName("isActive")
     class IsActiveTests {
         @Test
-        @DisplayName("READY and CRAFTING are active")
+        @DisplayName("READY, CRAFTING and QUEUED are active")
         void activeStatuses() {
             assertTrue(RuleStatus.READY.isActive());
             assertTrue(RuleStatus.CRAFTING.isActive());
+            assertTrue(RuleStatus.QUEUED.isActive());
         }
 
         @Test
@@ -0,0 +1,108 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CalculationLimiter")
+class CalculationLimiterTest {
+
+    private final List<UUID> granted = new ArrayList<>();
+    private final CalculationLimiter.Requester first = new Recorder();
+    private final CalculationLimiter.Requester second = new Recorder();
+
+    private final class Recorder implements CalculationLimiter.Requester {
+        @Override
+        public void onCalculationSlotGranted(UUID ruleId) {
+            granted.add(ruleId);
+        }
+    }
+
+    @Test
+    @DisplayName("grants slots up to the limit, then queues")
+    void capsInFlight() {
+        CalculationLimiter limiter = new CalculationLimiter(() -> 2);
+
+        assertTrue(limiter.tryAcquire(first, UUID.randomUUID()));
+        assertTrue(limiter.tryAcquire(first, UUID.randomUUID()));
+        assertFalse(limiter.tryAcquire(second, UUID.randomUUID()));
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getWaiting());
+    }
+
+    @Test
+    @DisplayName("a freed slot goes to the blocks in turn")
+    void takesTurns() {
+        CalculationLimiter limiter = new CalculationLimiter(() -> 1);
+        UUID a1 = UUID.randomUUID();
+        UUID a2 = UUID.randomUUID();
+        UUID b1 = UUID.randomUUID();
+        limiter.tryAcquire(first, UUID.randomUUID());
+        limiter.tryAcquire(first, a1);
+        limiter.tryAcquire(first, a2);
+        limiter.tryAcquire(second, b1);
+
+        limiter.release(first);
+        limiter.release(first);
+        limiter.release(second);
+
+        assertEquals(List.of(a1, b1, a2), granted);
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    @DisplayName("queues a waiting rule only once")
+    void deduplicates() {
+        CalculationLimiter limiter = new CalculationLimiter(() -> 1);
+        UUID rule = UUID.randomUUID();
+        limiter.tryAcquire(first, UUID.randomUUID());
+        limiter.tryAcquire(second, rule);
+        limiter.tryAcquire(second, rule);
+
+        assertEquals(1, limiter.getWaiting());
+    }
+
+    @Test
+    @DisplayName("cancelled rules lose their turn")
+    void cancelIf() {
+        CalculationLimiter limiter = new CalculationLimiter(() -> 1);
+        UUID removed = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        limiter.tryAcquire(first, UUID.randomUUID());
+        limiter.tryAcquire(second, removed);
+        limiter.tryAcquire(second, kept);
+
+        limiter.cancelIf(second, removed::equals);
+        assertEquals(1, limiter.getWaiting());
+
+        limiter.release(first);
+        assertEquals(List.of(kept), granted);
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    @DisplayName("discarding a block returns its slots to the others")
+    void discard() {
+        CalculationLimiter limiter = new CalculationLimiter(() -> 1);
+        UUID rule = UUID.randomUUID();
+        limiter.tryAcquire(first, UUID.randomUUID());
+        limiter.tryAcquire(first, UUID.randomUUID());
+        limiter.tryAcquire(second, rule);
+
+        limiter.discard(first);
+
+        assertEquals(List.of(rule), granted);
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+        // Releasing a slot the block no longer holds changes nothing
+        limiter.release(first);
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,61 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("CompletionQueue")
+class CompletionQueueTest {
+
+    @Test
+    @DisplayName("runs the callback of a CompletableFuture on the next drain after it completes")
+    void completableFuture() {
+        CompletionQueue queue = new CompletionQueue(Runnable::run);
+        List<String> ran = new ArrayList<>();
+        CompletableFuture<String> future = new CompletableFuture<>();
+        queue.watch(future, () -> ran.add("done"));
+
+        assertEquals(0, queue.drain());
+        future.complete("plan");
+        assertEquals(List.of(), ran);
+        assertEquals(1, queue.drain());
+        assertEquals(List.of("done"), ran);
+    }
+
+    @Test
+    @DisplayName("waits on other futures with the waiter executor")
+    void plainFuture() {
+        CompletionQueue queue = new CompletionQueue(Runnable::run);
+        List<String> ran = new ArrayList<>();
+        FutureTask<String> future = new FutureTask<>(() -> "plan");
+        future.run();
+        queue.watch(future, () -> ran.add("done"));
+
+        assertEquals(1, queue.drain());
+        assertEquals(List.of("done"), ran);
+    }
+
+    @Test
+    @DisplayName("runs the callback for failed and cancelled futures too")
+    void failedOrCancelled() {
+        CompletionQueue queue = new CompletionQueue(Runnable::run);
+        List<String> ran = new ArrayList<>();
+        FutureTask<String> failed = new FutureTask<>(() -> {
+            throw new IllegalStateException("no plan");
+        });
+        failed.run();
+        FutureTask<String> cancelled = new FutureTask<>(() -> "plan");
+        cancelled.cancel(true);
+        queue.watch(failed, () -> ran.add("failed"));
+        queue.watch(cancelled, () -> ran.add("cancelled"));
+
+        assertEquals(2, queue.drain());
+        assertEquals(List.of("failed", "cancelled"), ran);
+    }
+}
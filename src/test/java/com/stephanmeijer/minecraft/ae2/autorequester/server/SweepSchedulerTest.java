@@ -0,0 +1,67 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("SweepScheduler")
+class SweepSchedulerTest {
+
+    @Nested
+    @DisplayName("phaseOf")
+    class PhaseOfTests {
+        @Test
+        @DisplayName("is stable and within the interval")
+        void stableAndInRange() {
+            for (long pos = -500; pos < 500; pos++) {
+                int phase = SweepScheduler.phaseOf(pos, 20);
+                assertTrue(phase >= 0 && phase < 20, () -> "phase " + phase);
+                assertEquals(phase, SweepScheduler.phaseOf(pos, 20));
+            }
+        }
+
+        @Test
+        @DisplayName("spreads neighbouring positions over the interval")
+        void spreadsNeighbours() {
+            int interval = 20;
+            int[] perPhase = new int[interval];
+            // A row of 2000 adjacent blocks, packed like BlockPos.asLong() along x
+            for (long x = 0; x < 2000; x++) {
+                perPhase[SweepScheduler.phaseOf(x << 38, interval)]++;
+            }
+            for (int count : perPhase) {
+                // Expected 100 per phase; allow generous slack for hashing
+                assertTrue(count > 50 && count < 150, () -> "count " + count);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("summarize")
+    class SummarizeTests {
+        @Test
+        @DisplayName("covers the most recent ticks, wrapping around the history")
+        void wrapsAround() {
+            int[] history = {5, 1, 0, 0, 7, 3};
+            // Ticks 10 and 11 are at indices 4 and 5, ticks 12 and 13 at 0 and 1
+            SweepScheduler.Stats stats = SweepScheduler.summarize(history, 13, 4, 2);
+
+            assertEquals(2, stats.blocks());
+            assertEquals(4, stats.ticks());
+            assertEquals(1, stats.minLoad());
+            assertEquals(7, stats.maxLoad());
+            assertEquals(4.0, stats.averageLoad());
+        }
+
+        @Test
+        @DisplayName("reports no load before the first tick")
+        void emptyHistory() {
+            SweepScheduler.Stats stats = SweepScheduler.summarize(new int[4], -1, 0, 0);
+            assertEquals(0, stats.ticks());
+            assertEquals(0, stats.maxLoad());
+        }
+    }
+}
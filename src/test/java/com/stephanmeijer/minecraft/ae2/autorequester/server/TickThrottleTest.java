@@ -0,0 +1,59 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TickThrottle")
+class TickThrottleTest {
+    private static final int TARGET = 40;
+
+    private static int feed(TickThrottle throttle, double mspt, int samples) {
+        int level = throttle.getLevel();
+        for (int i = 0; i < samples; i++) {
+            level = throttle.sample(mspt, TARGET);
+        }
+        return level;
+    }
+
+    @Test
+    @DisplayName("raises the level only after sustained lag")
+    void raisesAfterSustainedLag() {
+        TickThrottle throttle = new TickThrottle();
+        assertEquals(0, feed(throttle, 60, TickThrottle.RAISE_AFTER - 1));
+        assertEquals(1, feed(throttle, 60, 1));
+        assertEquals(TickThrottle.MAX_LEVEL, feed(throttle, 60, 100));
+    }
+
+    @Test
+    @DisplayName("holds the level while MSPT stays between the release threshold and the target")
+    void holdsInsideHysteresisBand() {
+        TickThrottle throttle = new TickThrottle();
+        feed(throttle, 60, TickThrottle.RAISE_AFTER);
+        assertEquals(1, feed(throttle, TARGET * 0.9, 100));
+    }
+
+    @Test
+    @DisplayName("lowers the level only after sustained recovery")
+    void lowersAfterRecovery() {
+        TickThrottle throttle = new TickThrottle();
+        feed(throttle, 60, TickThrottle.RAISE_AFTER * 2);
+        assertEquals(2, throttle.getLevel());
+
+        assertEquals(2, feed(throttle, 10, TickThrottle.LOWER_AFTER - 1));
+        // A single lag spike resets the recovery streak
+        feed(throttle, 60, 1);
+        assertEquals(2, feed(throttle, 10, TickThrottle.LOWER_AFTER - 1));
+        assertEquals(1, feed(throttle, 10, 1));
+        assertEquals(0, feed(throttle, 10, TickThrottle.LOWER_AFTER));
+    }
+
+    @Test
+    @DisplayName("is disabled by a target of -1")
+    void disabled() {
+        TickThrottle throttle = new TickThrottle();
+        feed(throttle, 60, TickThrottle.RAISE_AFTER);
+        assertEquals(0, throttle.sample(60, -1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.stephanmeijer.minecraft.ae2.autorequester.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("WorkQueue")
+class WorkQueueTest {
+
+    @Nested
+    @DisplayName("drain")
+    class DrainTests {
+        @Test
+        @DisplayName("takes turns between owners")
+        void roundRobin() {
+            WorkQueue queue = new WorkQueue();
+            List<String> order = new ArrayList<>();
+            Object first = new Object();
+            Object second = new Object();
+            queue.submit(first, () -> order.add("a1"));
+            queue.submit(first, () -> order.add("a2"));
+            queue.submit(first, () -> order.add("a3"));
+            queue.submit(second, () -> order.add("b1"));
+
+            assertEquals(4, queue.drain(Long.MAX_VALUE / 2));
+            assertEquals(List.of("a1", "b1", "a2", "a3"), order);
+            assertEquals(0, queue.getPendingTasks());
+        }
+
+        @Test
+        @DisplayName("runs one task when out of budget and carries the rest over")
+        void carriesOver() {
+            WorkQueue queue = new WorkQueue();
+            List<String> order = new ArrayList<>();
+            Object owner = new Object();
+            queue.submit(owner, () -> order.add("1"));
+            queue.submit(owner, () -> order.add("2"));
+
+            assertEquals(1, queue.drain(0));
+            assertEquals(List.of("1"), order);
+            assertEquals(1, queue.getPendingTasks());
+
+            assertEquals(1, queue.drain(0));
+            assertEquals(List.of("1", "2"), order);
+        }
+
+        @Test
+        @DisplayName("keeps draining after a failing task")
+        void survivesFailures() {
+            WorkQueue queue = new WorkQueue();
+            List<String> order = new ArrayList<>();
+            Object owner = new Object();
+            queue.submit(owner, () -> {
+                throw new IllegalStateException("test");
+            });
+            queue.submit(owner, () -> order.add("after"));
+
+            assertEquals(2, queue.drain(Long.MAX_VALUE / 2));
+            assertEquals(List.of("after"), order);
+        }
+    }
+
+    @Test
+    @DisplayName("discard drops only the owner's tasks")
+    void discard() {
+        WorkQueue queue = new WorkQueue();
+        List<String> order = new ArrayList<>();
+        Object kept = new Object();
+        Object dropped = new Object();
+        queue.submit(dropped, () -> order.add("dropped"));
+        queue.submit(kept, () -> order.add("kept"));
+        queue.discard(dropped);
+
+        assertEquals(1, queue.getPendingTasks());
+        queue.drain(Long.MAX_VALUE / 2);
+        assertEquals(List.of("kept"), order);
+    }
+}